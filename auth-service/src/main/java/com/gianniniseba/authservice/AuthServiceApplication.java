@@ -1,14 +1,20 @@
 package com.gianniniseba.authservice;
 
+import com.gianniniseba.authservice.config.AuthServiceRuntimeHints;
 import com.gianniniseba.authservice.entity.Role;
 import com.gianniniseba.authservice.entity.RoleName;
 import com.gianniniseba.authservice.repository.RoleRepository;
+import com.gianniniseba.authservice.service.RoleRegistry;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(AuthServiceRuntimeHints.class)
 public class AuthServiceApplication {
 
 	public static void main(String[] args) {
@@ -16,7 +22,7 @@ public class AuthServiceApplication {
 	}
 
     @Bean
-    public CommandLineRunner initRoles(RoleRepository roleRepository){
+    public CommandLineRunner initRoles(RoleRepository roleRepository, RoleRegistry roleRegistry){
         return args ->{
             if(roleRepository.findByName(RoleName.ROLE_ADMIN).isEmpty()){
                 roleRepository.save(Role.builder().name(RoleName.ROLE_ADMIN).build());
@@ -25,6 +31,8 @@ public class AuthServiceApplication {
             if (roleRepository.findByName(RoleName.ROLE_USER).isEmpty()){
                 roleRepository.save(Role.builder().name(RoleName.ROLE_USER).build());
             }
+
+            roleRegistry.reload(roleRepository.findAll());
         };
     }
 
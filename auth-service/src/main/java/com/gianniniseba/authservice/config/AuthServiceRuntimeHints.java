@@ -0,0 +1,38 @@
+package com.gianniniseba.authservice.config;
+
+import com.gianniniseba.authservice.dto.RefreshTokenRow;
+import com.gianniniseba.authservice.dto.UserCredentialRow;
+import com.gianniniseba.authservice.dto.UserImportRow;
+import com.gianniniseba.authservice.dto.UserProfile;
+import com.gianniniseba.authservice.dto.UserResponse;
+import com.gianniniseba.authservice.entity.RoleChangeListener;
+import com.gianniniseba.authservice.entity.UserChangeListener;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/*
+ * Hints para la ejecucion AOT (perfil fast-start / imagen nativa) de lo que Spring no detecta solo:
+ * - DTOs creados por Hibernate con "select new ..." (constructor por reflection)
+ * - entity listeners, que Hibernate instancia y llama por reflection
+ * - tipos que se (de)serializan con ObjectMapper fuera de los controllers (import / export)
+ * - las migraciones de Flyway, que no estan en la ubicacion por defecto (db/migration/{vendor})
+ */
+public class AuthServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> projection : new Class<?>[]{UserCredentialRow.class, UserProfile.class, RefreshTokenRow.class}) {
+            hints.reflection().registerType(projection, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        for (Class<?> listener : new Class<?>[]{RoleChangeListener.class, UserChangeListener.class}) {
+            hints.reflection().registerType(listener,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        bindingRegistrar.registerReflectionHints(hints.reflection(), UserImportRow.class, UserResponse.class);
+        hints.resources().registerPattern("db/migration/*/*.sql");
+    }
+}
@@ -1,13 +1,23 @@
 package com.gianniniseba.authservice.config;
 
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import com.gianniniseba.authservice.security.CachingJwtDecoder;
+import com.gianniniseba.authservice.security.Ed25519Jws;
+import com.gianniniseba.authservice.security.Ed25519JwtEncoder;
+import com.gianniniseba.authservice.security.RevocationCheckingJwtDecoder;
+import com.gianniniseba.authservice.security.SigningAlgorithm;
+import com.gianniniseba.authservice.security.SigningKeyManager;
+import com.gianniniseba.authservice.security.TokenRevocationList;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -16,22 +26,27 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
 import org.springframework.security.oauth2.core.oidc.OidcScopes;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
-import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationConsentService;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.client.JdbcRegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
 import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
 import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
+import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
 import org.springframework.security.web.SecurityFilterChain;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.nio.file.Path;
+import java.time.Clock;
 import java.time.Duration;
 import java.util.UUID;
 
@@ -39,6 +54,16 @@ import java.util.UUID;
 @EnableWebSecurity
 public class OAuth2AuthorizationServerConfig {
 
+    // Scopes de las cuentas de servicio (se piden con client_credentials)
+    public static final String INTROSPECT_SCOPE = "introspect";
+    public static final String METRICS_SCOPE = "metrics";
+
+    private final SigningAlgorithm signingAlgorithm;
+
+    public OAuth2AuthorizationServerConfig(@Value("${auth.jwt.signing-algorithm:RS256}") String signingAlgorithm) {
+        this.signingAlgorithm = SigningAlgorithm.from(signingAlgorithm);
+    }
+
     @Bean
     @Order(1)
     public SecurityFilterChain authorizationServerSecurityFilterChain(HttpSecurity http)
@@ -49,14 +74,26 @@ public class OAuth2AuthorizationServerConfig {
                         .anyRequest().permitAll()
                 )
                 .csrf(csrf -> csrf.disable())
+                // Endpoints del Authorization Server (/oauth2/jwks, /oauth2/token, metadata, ...)
+                .oauth2AuthorizationServer(Customizer.withDefaults())
                 .oauth2ResourceServer((resourceServer) -> resourceServer
                         .jwt(Customizer.withDefaults()));
 
         return http.build();
     }
 
+    /*
+     * Clientes, autorizaciones (codes, access/refresh tokens) y consentimientos en PostgreSQL (V3__oauth2_authorization_server.sql):
+     * compartidos entre nodos y persistentes ante reinicios. Los clientes react-client, el de introspeccion
+     * y el de scrape de metricas se crean si no existen.
+     */
     @Bean
-    public RegisteredClientRepository registeredClientRepository() {
+    public RegisteredClientRepository registeredClientRepository(
+            JdbcOperations jdbcOperations,
+            @Value("${auth.introspection.client-id:introspection-client}") String introspectionClientId,
+            @Value("${auth.introspection.client-secret:secret}") String introspectionClientSecret,
+            @Value("${auth.metrics.client-id:metrics-client}") String metricsClientId,
+            @Value("${auth.metrics.client-secret:secret}") String metricsClientSecret) {
         RegisteredClient oidcClient = RegisteredClient.withId(UUID.randomUUID().toString())
                 .clientId("react-client")
                 .clientSecret(passwordEncoder().encode("secret"))
@@ -79,56 +116,129 @@ public class OAuth2AuthorizationServerConfig {
                         .build())
                 .build();
 
-        return new InMemoryRegisteredClientRepository(oidcClient);
+        JdbcRegisteredClientRepository registeredClientRepository = new JdbcRegisteredClientRepository(jdbcOperations);
+        saveIfAbsent(registeredClientRepository, oidcClient);
+        saveIfAbsent(registeredClientRepository, serviceClient(introspectionClientId, introspectionClientSecret, INTROSPECT_SCOPE));
+        saveIfAbsent(registeredClientRepository, serviceClient(metricsClientId, metricsClientSecret, METRICS_SCOPE));
+        return registeredClientRepository;
     }
 
-    @Bean
-    public JWKSource<SecurityContext> jwkSource() {
-        KeyPair keyPair = getStaticKeyPair();
-        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-        RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-        RSAKey rsaKey = new RSAKey.Builder(publicKey)
-                .privateKey(privateKey)
-                .keyID(UUID.randomUUID().toString())
+    // Cuenta de servicio sin usuario: token por client_credentials con un solo scope, que el cliente renueva solo
+    private RegisteredClient serviceClient(String clientId, String clientSecret, String scope) {
+        return RegisteredClient.withId(UUID.randomUUID().toString())
+                .clientId(clientId)
+                .clientSecret(passwordEncoder().encode(clientSecret))
+                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .scope(scope)
+                .tokenSettings(TokenSettings.builder()
+                        .accessTokenTimeToLive(Duration.ofMinutes(10))
+                        .build())
                 .build();
-        JWKSet jwkSet = new JWKSet(rsaKey);
-        return new ImmutableJWKSet<>(jwkSet);
     }
 
-    private static KeyPair generateRsaKey() {
-        KeyPair keyPair;
-        try {
-            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-            keyPairGenerator.initialize(2048);
-            keyPair = keyPairGenerator.generateKeyPair();
-        } catch (Exception ex) {
-            throw new IllegalStateException(ex);
+    private static void saveIfAbsent(RegisteredClientRepository registeredClientRepository, RegisteredClient client) {
+        if (registeredClientRepository.findByClientId(client.getClientId()) == null) {
+            try {
+                registeredClientRepository.save(client);
+            } catch (DuplicateKeyException ex) {
+                // Otro nodo lo creo al mismo tiempo (indice unico de client_id)
+            }
         }
-        return keyPair;
     }
 
-    private static KeyPair staticKeyPair;
-    
-    private static synchronized KeyPair getStaticKeyPair() {
-        if (staticKeyPair == null) {
-            staticKeyPair = generateRsaKey();
-        }
-        return staticKeyPair;
+    @Bean
+    public OAuth2AuthorizationService authorizationService(JdbcOperations jdbcOperations,
+                                                           RegisteredClientRepository registeredClientRepository) {
+        return new JdbcOAuth2AuthorizationService(jdbcOperations, registeredClientRepository);
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public OAuth2AuthorizationConsentService authorizationConsentService(JdbcOperations jdbcOperations,
+                                                                         RegisteredClientRepository registeredClientRepository) {
+        return new JdbcOAuth2AuthorizationConsentService(jdbcOperations, registeredClientRepository);
+    }
+
+    @Bean
+    public SigningAlgorithm signingAlgorithm() {
+        return signingAlgorithm;
+    }
+
+    /*
+     * Claves de firma persistidas en auth.jwt.keys.directory y compartidas entre nodos.
+     * El JWKS publica todas las vigentes; cada token se verifica con la clave de su "kid".
+     */
+    @Bean
+    public SigningKeyManager jwkSource(@Value("${auth.jwt.keys.directory:}") String keysDirectory,
+                                       @Value("${auth.jwt.keys.rotation-interval:P30D}") Duration rotationInterval,
+                                       @Value("${auth.jwt.keys.activation-delay:PT2M}") Duration activationDelay,
+                                       @Value("${auth.jwt.keys.verification-grace:PT2H}") Duration verificationGrace) {
+        SigningKeyManager signingKeyManager = new SigningKeyManager(signingAlgorithm,
+                keysDirectory.isBlank() ? null : Path.of(keysDirectory),
+                rotationInterval, activationDelay, verificationGrace, Clock.systemUTC());
+        // Lectura / generacion de claves (RSA: cientos de ms) en paralelo con el resto del arranque
+        signingKeyManager.initializeInBackground();
+        return signingKeyManager;
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource,
+                                 @Value("${auth.jwt.decoder-cache.enabled:false}") boolean cacheEnabled,
+                                 @Value("${auth.jwt.decoder-cache.maximum-size:10000}") long cacheMaximumSize,
+                                 MeterRegistry meterRegistry,
+                                 AuthMetrics authMetrics,
+                                 TokenRevocationList tokenRevocationList) {
+        JwtDecoder nimbusJwtDecoder = nimbusJwtDecoder(jwkSource);
+
+        JwtDecoder decoder = nimbusJwtDecoder;
+        if (cacheEnabled) {
+            // Cache de tokens ya verificados: un token repetido no vuelve a verificar la firma
+            CachingJwtDecoder cachingJwtDecoder = new CachingJwtDecoder(nimbusJwtDecoder, cacheMaximumSize);
+            CaffeineCacheMetrics.monitor(meterRegistry, cachingJwtDecoder.getCache(), "jwt.decoder");
+            decoder = cachingJwtDecoder;
+        }
+
+        // La revocacion se chequea en memoria, sin consulta a la base por request
+        JwtDecoder delegate = new RevocationCheckingJwtDecoder(decoder, tokenRevocationList);
+        return token -> authMetrics.time(AuthMetrics.Phase.JWT_DECODE, () -> delegate.decode(token));
+    }
+
+    // Solo la verificacion de Nimbus (firma + claims), sin cache, revocacion ni metricas; publico para los benchmarks
+    public JwtDecoder nimbusJwtDecoder(JWKSource<SecurityContext> jwkSource) {
         try {
-            RSAPublicKey publicKey = (RSAPublicKey) getStaticKeyPair().getPublic();
-            return NimbusJwtDecoder.withPublicKey(publicKey).build();
+            if (signingAlgorithm == SigningAlgorithm.ED25519) {
+                return NimbusJwtDecoder.withJwkSource(jwkSource)
+                        .jwtProcessorCustomizer(processor -> {
+                            processor.setJWSKeySelector(new Ed25519Jws.KeySelector(jwkSource));
+                            processor.setJWSVerifierFactory(new Ed25519Jws.VerifierFactory());
+                        })
+                        .build();
+            }
+            return NimbusJwtDecoder.withJwkSource(jwkSource)
+                    .jwsAlgorithm(SignatureAlgorithm.from(signingAlgorithm.getName()))
+                    .build();
         } catch (Exception e) {
             throw new IllegalStateException("Error al crear JwtDecoder", e);
         }
     }
 
     @Bean
-    public JwtEncoder jwtEncoder(JWKSource<SecurityContext> jwkSource) {
-        return new NimbusJwtEncoder(jwkSource);
+    public JwtEncoder jwtEncoder(SigningKeyManager signingKeyManager) {
+        // Durante una rotacion hay varias claves publicadas: siempre se firma con la activa
+        if (signingAlgorithm == SigningAlgorithm.ED25519) {
+            Ed25519JwtEncoder ed25519JwtEncoder = new Ed25519JwtEncoder(signingKeyManager);
+            ed25519JwtEncoder.setJwkSelector(signingKeyManager::selectSigningKey);
+            return ed25519JwtEncoder;
+        }
+        NimbusJwtEncoder nimbusJwtEncoder = new NimbusJwtEncoder(signingKeyManager);
+        nimbusJwtEncoder.setJwkSelector(signingKeyManager::selectSigningKey);
+        return nimbusJwtEncoder;
+    }
+
+    // El JwtGenerator del Authorization Server (/oauth2/token) arma el header con RS256: se firma con el configurado
+    @Bean
+    public OAuth2TokenCustomizer<JwtEncodingContext> jwtTokenCustomizer() {
+        return context -> context.getJwsHeader().algorithm(signingAlgorithm);
     }
 
     @Bean
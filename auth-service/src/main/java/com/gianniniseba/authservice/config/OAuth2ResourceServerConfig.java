@@ -1,5 +1,7 @@
 package com.gianniniseba.authservice.config;
 
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import com.gianniniseba.authservice.security.JwtAuthoritiesConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -22,9 +24,11 @@ import static org.springframework.security.config.Customizer.withDefaults;
 public class OAuth2ResourceServerConfig {
 
     private final JwtDecoder jwtDecoder;
+    private final AuthMetrics authMetrics;
 
-    public OAuth2ResourceServerConfig(JwtDecoder jwtDecoder) {
+    public OAuth2ResourceServerConfig(JwtDecoder jwtDecoder, AuthMetrics authMetrics) {
         this.jwtDecoder = jwtDecoder;
+        this.authMetrics = authMetrics;
     }
 
     @Bean
@@ -38,10 +42,16 @@ public class OAuth2ResourceServerConfig {
                         sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/auth/logout").authenticated()
+                        .requestMatchers("/auth/introspect/**").hasAuthority("SCOPE_" + OAuth2AuthorizationServerConfig.INTROSPECT_SCOPE)
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/oauth2/**").permitAll()
                         .requestMatchers("/.well-known/**").permitAll()
                         .requestMatchers("/login").permitAll()
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/prometheus")
+                        .hasAnyAuthority("SCOPE_" + OAuth2AuthorizationServerConfig.METRICS_SCOPE, "ROLE_ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/test/**").authenticated()
                         .requestMatchers("/users/me").authenticated()
                         .requestMatchers("/admin/**").hasRole("ADMIN")
@@ -59,46 +69,16 @@ public class OAuth2ResourceServerConfig {
 
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        return jwtAuthenticationConverter(authMetrics);
+    }
+
+    // Sin depender del resto de la configuracion, para poder armarlo fuera del contexto (benchmarks)
+    public static JwtAuthenticationConverter jwtAuthenticationConverter(AuthMetrics authMetrics) {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            // Extraemos los roles del claim "authorities" o "roles"
-            Object authoritiesClaim = jwt.getClaim("authorities");
-            if (authoritiesClaim != null) {
-                if (authoritiesClaim instanceof String) {
-                    String authoritiesStr = (String) authoritiesClaim;
-                    return java.util.stream.Stream.of(authoritiesStr.split("\\s+"))
-                            .filter(auth -> !auth.isEmpty())
-                            .map(org.springframework.security.core.authority.SimpleGrantedAuthority::new)
-                            .collect(java.util.stream.Collectors.toList());
-                } else if (authoritiesClaim instanceof List) {
-                    @SuppressWarnings("unchecked")
-                    List<String> authoritiesList = (List<String>) authoritiesClaim;
-                    return authoritiesList.stream()
-                            .map(org.springframework.security.core.authority.SimpleGrantedAuthority::new)
-                            .collect(java.util.stream.Collectors.toList());
-                }
-            }
-            
-            // Si no hay authorities, intentamos con "roles"
-            Object rolesClaim = jwt.getClaim("roles");
-            if (rolesClaim != null) {
-                if (rolesClaim instanceof String) {
-                    String rolesStr = (String) rolesClaim;
-                    return java.util.stream.Stream.of(rolesStr.split("\\s+"))
-                            .filter(role -> !role.isEmpty())
-                            .map(org.springframework.security.core.authority.SimpleGrantedAuthority::new)
-                            .collect(java.util.stream.Collectors.toList());
-                } else if (rolesClaim instanceof List) {
-                    @SuppressWarnings("unchecked")
-                    List<String> rolesList = (List<String>) rolesClaim;
-                    return rolesList.stream()
-                            .map(org.springframework.security.core.authority.SimpleGrantedAuthority::new)
-                            .collect(java.util.stream.Collectors.toList());
-                }
-            }
-            
-            return java.util.Collections.emptyList();
-        });
+        // Extraemos los roles del claim "authorities" o "roles"
+        JwtAuthoritiesConverter authoritiesConverter = new JwtAuthoritiesConverter();
+        converter.setJwtGrantedAuthoritiesConverter(
+                jwt -> authMetrics.time(AuthMetrics.Phase.JWT_AUTHORITIES, () -> authoritiesConverter.convert(jwt)));
         return converter;
     }
 
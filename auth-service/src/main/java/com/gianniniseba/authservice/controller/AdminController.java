@@ -1,19 +1,68 @@
 package com.gianniniseba.authservice.controller;
 
+import com.gianniniseba.authservice.dto.UserImportResult;
+import com.gianniniseba.authservice.dto.UserPage;
+import com.gianniniseba.authservice.service.AdminUserService;
+import com.gianniniseba.authservice.service.AuthService;
+import com.gianniniseba.authservice.service.UserImportReader;
+import com.gianniniseba.authservice.service.UserImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/admin")
-
+@RequiredArgsConstructor
 public class AdminController {
 
+    private final UserImportService userImportService;
+    private final AdminUserService adminUserService;
+    private final AuthService authService;
+
     @GetMapping("/ping")
     public Map<String, String> adminPing(){
         return Map.of("message","Hola Admin, todo piola");
     }
 
+    // Keyset: para la pagina siguiente se manda afterId = nextAfterId de la respuesta anterior
+    @GetMapping("/users")
+    public UserPage listUsers(@RequestParam(defaultValue = "0") long afterId,
+                              @RequestParam(defaultValue = "50") int limit) {
+        return adminUserService.page(afterId, limit);
+    }
+
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(adminUserService::export);
+    }
+
+    // El cuerpo se lee como stream: el archivo nunca se carga completo en memoria
+    @PostMapping(value = "/users/import", consumes = {"application/x-ndjson", "text/csv"})
+    public UserImportResult importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                        InputStream body) throws IOException {
+        return userImportService.importUsers(body, UserImportReader.Format.from(MediaType.parseMediaType(contentType)));
+    }
+
+    // Revoca todos los tokens del usuario (access y refresh); los nuevos logins siguen funcionando
+    @PostMapping("/users/{username}/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(@PathVariable String username) {
+        authService.revokeAllForUser(username);
+        return ResponseEntity.noContent().build();
+    }
+
 }
@@ -2,12 +2,17 @@ package com.gianniniseba.authservice.controller;
 
 import com.gianniniseba.authservice.dto.AuthResponse;
 import com.gianniniseba.authservice.dto.LoginRequest;
+import com.gianniniseba.authservice.dto.RefreshRequest;
 import com.gianniniseba.authservice.dto.RegisterRequest;
+import com.gianniniseba.authservice.security.LoginRateLimiter;
 import com.gianniniseba.authservice.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -20,6 +25,7 @@ public class AuthController {
 
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request){
@@ -28,9 +34,25 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request){
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest){
+        // Se rechaza antes de consultar la base o ejecutar BCrypt
+        loginRateLimiter.check(request.getUsername(), httpRequest.getRemoteAddr());
         AuthResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshRequest request){
+        AuthResponse response = authService.refresh(request);
+        return ResponseEntity.ok(response);
+    }
+
+    // Requiere el access token (Bearer); el body con el refresh token es opcional
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponse> logout(@AuthenticationPrincipal Jwt jwt,
+                                               @RequestBody(required = false) RefreshRequest request){
+        AuthResponse response = authService.logout(jwt, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.ok(response);
+    }
+
 }
@@ -0,0 +1,38 @@
+package com.gianniniseba.authservice.controller;
+
+import com.gianniniseba.authservice.dto.IntrospectionBatchRequest;
+import com.gianniniseba.authservice.dto.IntrospectionBatchResponse;
+import com.gianniniseba.authservice.dto.IntrospectionResponse;
+import com.gianniniseba.authservice.service.TokenIntrospectionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Requiere SCOPE_introspect: token por client_credentials del cliente de introspeccion (auth.introspection.client-id),
+// ver OAuth2ResourceServerConfig y OAuth2AuthorizationServerConfig
+@RestController
+@RequestMapping("/auth/introspect")
+@RequiredArgsConstructor
+public class TokenIntrospectionController {
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    // RFC 7662: token=... como application/x-www-form-urlencoded
+    @PostMapping(consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public IntrospectionResponse introspect(@RequestParam("token") String token) {
+        return tokenIntrospectionService.introspect(token);
+    }
+
+    // Varios tokens en un solo viaje (p. ej. una rafaga de requests en el gateway)
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public IntrospectionBatchResponse introspectBatch(@Valid @RequestBody IntrospectionBatchRequest request) {
+        return IntrospectionBatchResponse.builder()
+                .results(tokenIntrospectionService.introspectAll(request.getTokens()))
+                .build();
+    }
+}
@@ -1,9 +1,12 @@
 package com.gianniniseba.authservice.controller;
 
+import com.gianniniseba.authservice.dto.UserProfile;
 import com.gianniniseba.authservice.dto.UserResponse;
-import com.gianniniseba.authservice.entity.User;
-import com.gianniniseba.authservice.repository.UserRepository;
+import com.gianniniseba.authservice.security.TokenDigests;
+import com.gianniniseba.authservice.service.UserProfileCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @RestController
@@ -18,24 +22,37 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserController {
 
-    private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
 
+    /*
+     * Username y roles salen del token; id y email de UserProfileCache.
+     * Con ETag: si el cliente manda If-None-Match y el perfil no cambio, Spring responde 304 sin body.
+     */
     @GetMapping("/me")
-    public UserResponse getCurrentUser(Authentication authentication){
+    public ResponseEntity<UserResponse> getCurrentUser(Authentication authentication){
         String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado " + username));
+        UserProfile profile = userProfileCache.get(username);
+        if (profile == null) {
+            throw new RuntimeException("Usuario no encontrado " + username);
+        }
 
         Set<String> roleNames = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toSet());
 
-        return UserResponse.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
+        UserResponse response = UserResponse.builder()
+                .id(profile.id())
+                .username(username)
+                .email(profile.email())
                 .roles(roleNames)
                 .build();
+
+        String etag = TokenDigests.sha256(profile.id() + "|" + username + "|" + profile.email() + "|" + new TreeSet<>(roleNames));
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(response);
     }
 
 }
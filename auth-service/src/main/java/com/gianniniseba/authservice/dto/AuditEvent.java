@@ -0,0 +1,15 @@
+package com.gianniniseba.authservice.dto;
+
+import java.time.Instant;
+
+// Evento de auditoria (tabla audit_events); username y clientIp pueden ser null
+public record AuditEvent(Type type, String username, String clientIp, String detail, Instant occurredAt) {
+
+    public enum Type {
+        LOGIN_SUCCESS,
+        LOGIN_FAILURE,
+        REGISTER,
+        TOKEN_ISSUED,
+        TOKEN_REJECTED
+    }
+}
@@ -10,4 +10,5 @@ import lombok.*;
 public class AuthResponse {
     private String message;
     private String token;
+    private String refreshToken;
 }
@@ -0,0 +1,18 @@
+package com.gianniniseba.authservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IntrospectionBatchRequest {
+
+    @NotEmpty
+    @Size(max = 100)
+    private List<String> tokens;
+}
@@ -0,0 +1,15 @@
+package com.gianniniseba.authservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// Un resultado por token, en el mismo orden del request
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IntrospectionBatchResponse {
+
+    private List<IntrospectionResponse> results;
+}
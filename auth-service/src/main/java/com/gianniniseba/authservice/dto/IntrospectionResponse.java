@@ -0,0 +1,26 @@
+package com.gianniniseba.authservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+// Respuesta de introspeccion (RFC 7662): un token inactivo solo lleva "active": false
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IntrospectionResponse {
+
+    public static final IntrospectionResponse INACTIVE = IntrospectionResponse.builder().active(false).build();
+
+    private boolean active;
+    private String sub;
+    private String scope;
+    private List<String> authorities;
+    private String iss;
+    private String jti;
+    private Long iat;
+    private Long exp;
+}
@@ -0,0 +1,14 @@
+package com.gianniniseba.authservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshRequest {
+
+    @NotBlank
+    private String refreshToken;
+}
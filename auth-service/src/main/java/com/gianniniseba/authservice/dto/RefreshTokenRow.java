@@ -0,0 +1,11 @@
+package com.gianniniseba.authservice.dto;
+
+import com.gianniniseba.authservice.entity.RoleName;
+
+import java.time.Instant;
+
+/*
+ * Fila de la consulta del refresh token: una por rol del usuario (role == null si no tiene roles).
+ */
+public record RefreshTokenRow(Long tokenId, Instant expiresAt, Long userId, String username, boolean enabled, RoleName role) {
+}
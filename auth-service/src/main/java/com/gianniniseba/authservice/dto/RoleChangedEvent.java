@@ -0,0 +1,7 @@
+package com.gianniniseba.authservice.dto;
+
+import com.gianniniseba.authservice.entity.RoleName;
+
+// Rol creado, modificado o borrado (RoleChangeListener); RoleRegistry lo aplica recien despues del commit
+public record RoleChangedEvent(Long roleId, RoleName name, boolean removed) {
+}
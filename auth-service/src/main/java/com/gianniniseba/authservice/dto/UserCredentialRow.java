@@ -0,0 +1,9 @@
+package com.gianniniseba.authservice.dto;
+
+import com.gianniniseba.authservice.entity.RoleName;
+
+/*
+ * Fila de la proyeccion de credenciales: una por rol del usuario (role == null si no tiene roles).
+ */
+public record UserCredentialRow(Long id, String username, String password, boolean enabled, RoleName role) {
+}
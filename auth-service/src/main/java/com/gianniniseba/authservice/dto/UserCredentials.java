@@ -0,0 +1,29 @@
+package com.gianniniseba.authservice.dto;
+
+import com.gianniniseba.authservice.entity.RoleName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * Datos minimos para autenticar: sin entidad administrada, sin persistence context ni dirty checking.
+ */
+public record UserCredentials(Long id, String username, String password, boolean enabled, List<RoleName> roles) {
+
+    public static Optional<UserCredentials> from(List<UserCredentialRow> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<RoleName> roles = new ArrayList<>(rows.size());
+        for (UserCredentialRow row : rows) {
+            if (row.role() != null) {
+                roles.add(row.role());
+            }
+        }
+
+        UserCredentialRow first = rows.get(0);
+        return Optional.of(new UserCredentials(first.id(), first.username(), first.password(), first.enabled(), List.copyOf(roles)));
+    }
+}
@@ -0,0 +1,14 @@
+package com.gianniniseba.authservice.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportError {
+
+    private long line;
+    private String username;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.gianniniseba.authservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportResult {
+
+    private long processed;
+    private long imported;
+    private long failed;
+    private List<UserImportError> errors;
+    // true si hubo mas errores que los reportados (auth.import.max-reported-errors)
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,38 @@
+package com.gianniniseba.authservice.dto;
+
+import com.gianniniseba.authservice.entity.RoleName;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+/*
+ * Una fila de /admin/users/import. Lleva password (texto plano, se hashea) o passwordHash (BCrypt ya calculado).
+ * Sin roles se asigna ROLE_USER.
+ */
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportRow {
+
+    @NotBlank
+    @Size(min = 3, max = 50)
+    private String username;
+
+    @NotBlank
+    @Email
+    @Size(max = 100)
+    private String email;
+
+    @Size(min = 6, max = 100)
+    private String password;
+
+    @Pattern(regexp = "^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$", message = "no es un hash BCrypt")
+    private String passwordHash;
+
+    private List<RoleName> roles;
+}
@@ -0,0 +1,18 @@
+package com.gianniniseba.authservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/*
+ * Pagina de /admin/users. nextAfterId es el afterId de la pagina siguiente (null si no hay mas).
+ */
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPage {
+
+    private List<UserResponse> users;
+    private Long nextAfterId;
+}
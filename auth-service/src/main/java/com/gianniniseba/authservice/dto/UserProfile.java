@@ -0,0 +1,7 @@
+package com.gianniniseba.authservice.dto;
+
+/*
+ * Datos de /users/me que no viajan en el token.
+ */
+public record UserProfile(Long id, String email) {
+}
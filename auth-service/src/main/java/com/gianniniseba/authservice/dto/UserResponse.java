@@ -1,7 +1,9 @@
 package com.gianniniseba.authservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
+import java.time.Instant;
 import java.util.Set;
 
 @Getter
@@ -16,4 +18,11 @@ public class UserResponse {
     private String email;
     private Set<String> roles;
 
+    // Solo en el listado / export de administracion (se actualizan cada auth.login-activity.flush-interval)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant lastLoginAt;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long loginCount;
+
 }
@@ -5,6 +5,7 @@ import lombok.*;
 
 @Entity
 @Table(name = "roles")
+@EntityListeners(RoleChangeListener.class)
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
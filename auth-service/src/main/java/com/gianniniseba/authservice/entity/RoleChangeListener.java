@@ -0,0 +1,30 @@
+package com.gianniniseba.authservice.entity;
+
+import com.gianniniseba.authservice.dto.RoleChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+/*
+ * Hibernate lo instancia via Spring (SpringBeanContainer), por eso puede recibir el ApplicationEventPublisher.
+ * Los callbacks corren antes del commit: solo se publica el cambio y RoleRegistry lo aplica si la
+ * transaccion confirma, asi un rollback no lo deja apuntando a un id que no existe.
+ */
+@RequiredArgsConstructor
+public class RoleChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Role role) {
+        eventPublisher.publishEvent(new RoleChangedEvent(role.getId(), role.getName(), false));
+    }
+
+    @PostRemove
+    public void onRemoved(Role role) {
+        eventPublisher.publishEvent(new RoleChangedEvent(role.getId(), role.getName(), true));
+    }
+}
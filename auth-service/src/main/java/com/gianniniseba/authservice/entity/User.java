@@ -3,12 +3,14 @@ package com.gianniniseba.authservice.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table (name ="users")
+@EntityListeners(UserChangeListener.class)
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,10 +20,11 @@ public class User {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable =false, unique = true, length = 50)
+    // Unicos sin distinguir mayusculas por los indices sobre lower(...) de V1__users_and_roles.sql, no por Hibernate
+    @Column(nullable =false, length = 50)
     private String username;
 
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
 
     @Column(nullable = false)
@@ -36,6 +39,13 @@ public class User {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Los escribe LoginActivityTracker con un UPDATE en lote; JPA no los inserta ni actualiza
+    @Column(insertable = false, updatable = false)
+    private Instant lastLoginAt;
+
+    @Column(insertable = false, updatable = false)
+    private long loginCount;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
             name = "user_roles",
@@ -0,0 +1,24 @@
+package com.gianniniseba.authservice.entity;
+
+import com.gianniniseba.authservice.service.UserProfileCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+
+/*
+ * Invalida el perfil cacheado de /users/me cuando cambia el usuario.
+ * UserProfileCache depende de UserRepository (y este del EntityManagerFactory que crea este listener),
+ * por eso se resuelve de forma diferida.
+ */
+@RequiredArgsConstructor
+public class UserChangeListener {
+
+    private final ObjectProvider<UserProfileCache> userProfileCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onChanged(User user) {
+        userProfileCache.ifAvailable(cache -> cache.invalidate(user.getUsername()));
+    }
+}
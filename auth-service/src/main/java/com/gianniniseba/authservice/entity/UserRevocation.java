@@ -0,0 +1,30 @@
+package com.gianniniseba.authservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/*
+ * Revocacion de todos los tokens de un usuario: se rechaza cualquier token con "iat" anterior a revokedBefore.
+ */
+@Entity
+@Table(name = "user_revocations", indexes = {
+        @Index(name = "idx_user_revocations_revoked_at", columnList = "revoked_at")
+})
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserRevocation {
+
+    @Id
+    @Column(length = 50)
+    private String username;
+
+    @Column(name = "revoked_before", nullable = false)
+    private Instant revokedBefore;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
@@ -1,6 +1,7 @@
 package com.gianniniseba.authservice.exception;
 
 import com.gianniniseba.authservice.dto.AuthResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -28,4 +29,38 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response); // 400
     }
+
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<AuthResponse> handleInvalidImport(InvalidImportException ex) {
+        AuthResponse response = AuthResponse.builder()
+                .message(ex.getMessage())
+                .token(null)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response); // 400
+    }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<AuthResponse> handleHashingCapacityExceeded(HashingCapacityExceededException ex) {
+        AuthResponse response = AuthResponse.builder()
+                .message(ex.getMessage())
+                .token(null)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response); // 503
+    }
+
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<AuthResponse> handleTooManyLoginAttempts(TooManyLoginAttemptsException ex) {
+        AuthResponse response = AuthResponse.builder()
+                .message(ex.getMessage())
+                .token(null)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response); // 429
+    }
 }
@@ -0,0 +1,15 @@
+package com.gianniniseba.authservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyLoginAttemptsException(String message, long retryAfterSeconds){
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+}
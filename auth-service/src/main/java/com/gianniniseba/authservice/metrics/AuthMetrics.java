@@ -0,0 +1,109 @@
+package com.gianniniseba.authservice.metrics;
+
+import com.gianniniseba.authservice.exception.InvalidCredentialsException;
+import com.gianniniseba.authservice.exception.UserAlreadyExistsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/*
+ * Timers por fase de autenticacion, con histograma de percentiles (buckets "_bucket" en /actuator/prometheus)
+ * y tag outcome. Cada combinacion fase/resultado se registra la primera vez que ocurre.
+ */
+@Component
+public class AuthMetrics {
+
+    public enum Phase {
+        LOGIN("auth.login", "Login completo", Duration.ofMillis(1)),
+        REGISTER("auth.register", "Registro completo", Duration.ofMillis(1)),
+        USER_LOOKUP("auth.user.lookup", "Busqueda de credenciales del usuario", Duration.of(50, ChronoUnit.MICROS)),
+        PASSWORD_MATCH("auth.password.match", "BCrypt matches (incluye espera en el pool)", Duration.ofMillis(1)),
+        PASSWORD_ENCODE("auth.password.encode", "BCrypt encode (incluye espera en el pool)", Duration.ofMillis(1)),
+        TOKEN_SIGN("auth.token.sign", "Firma del access token", Duration.of(50, ChronoUnit.MICROS)),
+        TOKEN_REFRESH("auth.token.refresh", "Renovacion con refresh token", Duration.of(100, ChronoUnit.MICROS)),
+        REGISTER_INSERT("auth.register.insert", "INSERT del usuario registrado", Duration.of(50, ChronoUnit.MICROS)),
+        JWT_DECODE("auth.jwt.decode", "Validacion del JWT en el resource server", Duration.of(1, ChronoUnit.MICROS)),
+        JWT_AUTHORITIES("auth.jwt.authorities", "Conversion de claims a authorities", Duration.ofNanos(100)),
+        LOGIN_ACTIVITY_FLUSH("auth.login.activity.flush", "UPDATE en lote de ultimo login y contador", Duration.ofMillis(1));
+
+        private final String meterName;
+        private final String description;
+        private final Duration minimumExpectedValue;
+
+        Phase(String meterName, String description, Duration minimumExpectedValue) {
+            this.meterName = meterName;
+            this.description = description;
+            this.minimumExpectedValue = minimumExpectedValue;
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS, BAD_CREDENTIALS, DUPLICATE_USER, INVALID_TOKEN, ERROR;
+
+        private final String tagValue = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final int OUTCOMES = Outcome.values().length;
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(Phase.values().length * OUTCOMES);
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Resultado SUCCESS, o el que corresponda a la excepcion lanzada
+    public <T> T time(Phase phase, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            T result = action.get();
+            record(phase, Outcome.SUCCESS, start);
+            return result;
+        } catch (RuntimeException ex) {
+            record(phase, outcomeOf(ex), start);
+            throw ex;
+        }
+    }
+
+    public void record(Phase phase, Outcome outcome, long startNanos) {
+        timer(phase, outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static Outcome outcomeOf(RuntimeException ex) {
+        if (ex instanceof InvalidCredentialsException) {
+            return Outcome.BAD_CREDENTIALS;
+        }
+        if (ex instanceof UserAlreadyExistsException) {
+            return Outcome.DUPLICATE_USER;
+        }
+        if (ex instanceof JwtException || ex instanceof AuthenticationException) {
+            return Outcome.INVALID_TOKEN;
+        }
+        return Outcome.ERROR;
+    }
+
+    private Timer timer(Phase phase, Outcome outcome) {
+        int index = phase.ordinal() * OUTCOMES + outcome.ordinal();
+        Timer timer = timers.get(index);
+        if (timer == null) {
+            // Registrar dos veces es inocuo: el registry devuelve el mismo Timer
+            timer = Timer.builder(phase.meterName)
+                    .description(phase.description)
+                    .tag("outcome", outcome.tagValue)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(phase.minimumExpectedValue)
+                    .register(meterRegistry);
+            timers.set(index, timer);
+        }
+        return timer;
+    }
+}
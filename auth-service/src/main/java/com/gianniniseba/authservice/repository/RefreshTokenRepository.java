@@ -0,0 +1,37 @@
+package com.gianniniseba.authservice.repository;
+
+import com.gianniniseba.authservice.dto.RefreshTokenRow;
+import com.gianniniseba.authservice.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // Token + usuario + roles en una sola consulta por el indice unico de token_hash
+    @Query("select new com.gianniniseba.authservice.dto.RefreshTokenRow(t.id, t.expiresAt, u.id, u.username, u.enabled, r.name) "
+            + "from RefreshToken t join t.user u left join u.roles r where t.tokenHash = :tokenHash")
+    List<RefreshTokenRow> findRowsByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // 0 si otro request ya consumio el token: solo uno de dos refresh concurrentes gana
+    @Modifying
+    @Query("delete from RefreshToken t where t.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.user.id in (select u.id from User u where lower(u.username) = lower(:username))")
+    int deleteByUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+
+}
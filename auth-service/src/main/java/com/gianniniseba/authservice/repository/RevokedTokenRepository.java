@@ -0,0 +1,24 @@
+package com.gianniniseba.authservice.repository;
+
+import com.gianniniseba.authservice.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // Arranque: solo las revocaciones de tokens que todavia no vencieron
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    // Sincronizacion incremental con lo revocado en otros nodos
+    List<RevokedToken> findByRevokedAtGreaterThanEqual(Instant since);
+
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+
+}
@@ -1,8 +1,14 @@
 package com.gianniniseba.authservice.repository;
 
+import com.gianniniseba.authservice.dto.UserCredentialRow;
+import com.gianniniseba.authservice.dto.UserCredentials;
+import com.gianniniseba.authservice.dto.UserProfile;
 import com.gianniniseba.authservice.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User,Long> {
@@ -15,4 +21,17 @@ public interface UserRepository extends JpaRepository<User,Long> {
 
     boolean existsByEmail(String email);
 
+    // Login: una sola consulta (users + user_roles + roles) que devuelve filas, no entidades.
+    // lower(u.username) usa el indice unico uk_users_username_lower (V1__users_and_roles.sql)
+    @Query("select new com.gianniniseba.authservice.dto.UserCredentialRow(u.id, u.username, u.password, u.enabled, r.name) "
+            + "from User u left join u.roles r where lower(u.username) = lower(:username)")
+    List<UserCredentialRow> findCredentialRowsByUsername(@Param("username") String username);
+
+    default Optional<UserCredentials> findCredentialsByUsername(String username) {
+        return UserCredentials.from(findCredentialRowsByUsername(username));
+    }
+
+    @Query("select new com.gianniniseba.authservice.dto.UserProfile(u.id, u.email) from User u where lower(u.username) = lower(:username)")
+    Optional<UserProfile> findProfileByUsername(@Param("username") String username);
+
 }
@@ -0,0 +1,23 @@
+package com.gianniniseba.authservice.repository;
+
+import com.gianniniseba.authservice.entity.UserRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UserRevocationRepository extends JpaRepository<UserRevocation, String> {
+
+    // Una revocacion anterior a la vida maxima de un access token ya no afecta a ningun token valido
+    List<UserRevocation> findByRevokedBeforeAfter(Instant oldestValidIssuedAt);
+
+    List<UserRevocation> findByRevokedAtGreaterThanEqual(Instant since);
+
+    @Modifying
+    @Query("delete from UserRevocation r where r.revokedBefore < :oldestValidIssuedAt")
+    int deleteObsolete(@Param("oldestValidIssuedAt") Instant oldestValidIssuedAt);
+
+}
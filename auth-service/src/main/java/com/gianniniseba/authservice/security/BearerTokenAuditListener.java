@@ -0,0 +1,27 @@
+package com.gianniniseba.authservice.security;
+
+import com.gianniniseba.authservice.dto.AuditEvent;
+import com.gianniniseba.authservice.service.AuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+/*
+ * Tokens rechazados por el resource server (firma, vencimiento, revocacion): el AuthenticationManager de la
+ * cadena publica InvalidBearerTokenException como AuthenticationFailureBadCredentialsEvent.
+ */
+@Component
+@RequiredArgsConstructor
+public class BearerTokenAuditListener {
+
+    private final AuditLog auditLog;
+
+    @EventListener
+    public void onFailure(AuthenticationFailureBadCredentialsEvent event) {
+        if (event.getAuthentication() instanceof BearerTokenAuthenticationToken) {
+            auditLog.record(AuditEvent.Type.TOKEN_REJECTED, null, event.getException().getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.gianniniseba.authservice.security;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Filtro de Bloom de UUIDs (jti). mightContain == false garantiza que el jti no fue agregado;
+ * true puede ser un falso positivo con probabilidad ~fpp mientras no se supere expectedEntries.
+ * add es lock-free (CAS por palabra) y mightContain no bloquea.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+    }
+
+    static BloomFilter create(long expectedEntries, double fpp) {
+        long n = Math.max(1, expectedEntries);
+        long bits = Math.max(64, (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    void add(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits() ^ h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = words.get(index);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(index, word, word | mask));
+        }
+    }
+
+    boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits() ^ h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Finalizador de MurmurHash3 (fmix64)
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb93fe53a6479L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
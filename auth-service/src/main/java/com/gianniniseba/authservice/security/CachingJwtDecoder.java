@@ -0,0 +1,55 @@
+package com.gianniniseba.authservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/*
+ * JwtDecoder que recuerda los tokens ya verificados (clave: SHA-256 del token) hasta su "exp".
+ * Un token repetido evita la verificacion de firma RSA y el parseo JSON del delegate.
+ * La cache esta acotada por cantidad de entradas (W-TinyLFU de Caffeine).
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String key, Jwt jwt) -> timeToLive(jwt)))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = TokenDigests.sha256(token);
+        Jwt cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    public Cache<String, Jwt> getCache() {
+        return cache;
+    }
+
+    private static Duration timeToLive(Jwt jwt) {
+        Duration ttl = Duration.between(Instant.now(), jwt.getExpiresAt());
+        return ttl.isNegative() ? Duration.ZERO : ttl;
+    }
+}
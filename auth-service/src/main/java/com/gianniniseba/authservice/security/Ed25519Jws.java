@@ -0,0 +1,208 @@
+package com.gianniniseba.authservice.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.KeyType;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.EdECPrivateKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Soporte EdDSA (Ed25519) sobre el proveedor del JDK.
+ * Nimbus solo firma/verifica Ed25519 con Google Tink y ni NimbusJwtEncoder ni el DefaultJWSVerifierFactory
+ * lo contemplan, asi que aca estan el signer, el verifier y el key selector que usan Ed25519JwtEncoder
+ * y el NimbusJwtDecoder.
+ */
+public final class Ed25519Jws {
+
+    private static final String JCA_ALGORITHM = "Ed25519";
+    private static final Set<JWSAlgorithm> ALGORITHMS = Set.of(JWSAlgorithm.EdDSA, JWSAlgorithm.Ed25519);
+
+    // Prefijos DER de SubjectPublicKeyInfo / PrivateKeyInfo para Ed25519 (RFC 8410), seguidos de 32 bytes
+    private static final byte[] X509_PREFIX = {0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x03, 0x21, 0x00};
+    private static final byte[] PKCS8_PREFIX = {0x30, 0x2e, 0x02, 0x01, 0x00, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x04, 0x22, 0x04, 0x20};
+
+    private Ed25519Jws() {
+    }
+
+    public static OctetKeyPair toJwk(KeyPair keyPair, String keyId) {
+        byte[] encodedPublic = keyPair.getPublic().getEncoded();
+        byte[] x = Arrays.copyOfRange(encodedPublic, encodedPublic.length - 32, encodedPublic.length);
+        byte[] d = ((EdECPrivateKey) keyPair.getPrivate()).getBytes()
+                .orElseThrow(() -> new IllegalStateException("La clave Ed25519 no expone su valor privado"));
+
+        return new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(x))
+                .d(Base64URL.encode(d))
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(JWSAlgorithm.EdDSA)
+                .keyID(keyId)
+                .build();
+    }
+
+    public static PublicKey toPublicKey(OctetKeyPair jwk) throws GeneralSecurityException {
+        byte[] encoded = concat(X509_PREFIX, jwk.getX().decode());
+        return KeyFactory.getInstance(JCA_ALGORITHM).generatePublic(new X509EncodedKeySpec(encoded));
+    }
+
+    public static PrivateKey toPrivateKey(OctetKeyPair jwk) throws GeneralSecurityException {
+        byte[] encoded = concat(PKCS8_PREFIX, jwk.getD().decode());
+        return KeyFactory.getInstance(JCA_ALGORITHM).generatePrivate(new PKCS8EncodedKeySpec(encoded));
+    }
+
+    private static byte[] concat(byte[] prefix, byte[] raw) {
+        byte[] result = Arrays.copyOf(prefix, prefix.length + raw.length);
+        System.arraycopy(raw, 0, result, prefix.length, raw.length);
+        return result;
+    }
+
+    public static class Signer implements JWSSigner {
+
+        private final PrivateKey privateKey;
+        private final JCAContext jcaContext = new JCAContext();
+
+        public Signer(OctetKeyPair jwk) throws GeneralSecurityException {
+            this.privateKey = toPrivateKey(jwk);
+        }
+
+        @Override
+        public Base64URL sign(JWSHeader header, byte[] signingInput) throws JOSEException {
+            try {
+                Signature signature = Signature.getInstance(JCA_ALGORITHM);
+                signature.initSign(privateKey);
+                signature.update(signingInput);
+                return Base64URL.encode(signature.sign());
+            } catch (GeneralSecurityException ex) {
+                throw new JOSEException("Error al firmar con Ed25519: " + ex.getMessage(), ex);
+            }
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return ALGORITHMS;
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+
+    public static class Verifier implements JWSVerifier {
+
+        private final PublicKey publicKey;
+        private final JCAContext jcaContext = new JCAContext();
+
+        public Verifier(PublicKey publicKey) {
+            this.publicKey = publicKey;
+        }
+
+        @Override
+        public boolean verify(JWSHeader header, byte[] signingInput, Base64URL signature) throws JOSEException {
+            try {
+                Signature verifier = Signature.getInstance(JCA_ALGORITHM);
+                verifier.initVerify(publicKey);
+                verifier.update(signingInput);
+                return verifier.verify(signature.decode());
+            } catch (GeneralSecurityException ex) {
+                return false;
+            }
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return ALGORITHMS;
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+
+    public static class VerifierFactory implements JWSVerifierFactory {
+
+        private final JCAContext jcaContext = new JCAContext();
+
+        @Override
+        public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+            if (!ALGORITHMS.contains(header.getAlgorithm()) || !(key instanceof PublicKey publicKey)) {
+                throw new JOSEException("Algoritmo o clave no soportados: " + header.getAlgorithm());
+            }
+            return new Verifier(publicKey);
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return ALGORITHMS;
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+
+    /*
+     * Selecciona las claves OKP/Ed25519 del JWKSource (filtrando por kid si viene en el header)
+     * y las devuelve como PublicKey del JDK.
+     */
+    public static class KeySelector implements JWSKeySelector<SecurityContext> {
+
+        private final JWKSource<SecurityContext> jwkSource;
+
+        public KeySelector(JWKSource<SecurityContext> jwkSource) {
+            this.jwkSource = jwkSource;
+        }
+
+        @Override
+        public List<? extends Key> selectJWSKeys(JWSHeader header, SecurityContext context) throws KeySourceException {
+            if (!ALGORITHMS.contains(header.getAlgorithm())) {
+                return List.of();
+            }
+
+            JWKMatcher matcher = new JWKMatcher.Builder()
+                    .keyType(KeyType.OKP)
+                    .curve(Curve.Ed25519)
+                    .keyID(header.getKeyID())
+                    .build();
+
+            List<Key> keys = new ArrayList<>();
+            for (JWK jwk : jwkSource.get(new JWKSelector(matcher), context)) {
+                try {
+                    keys.add(toPublicKey(jwk.toOctetKeyPair()));
+                } catch (GeneralSecurityException ex) {
+                    throw new KeySourceException("Clave Ed25519 invalida: " + jwk.getKeyID(), ex);
+                }
+            }
+            return keys;
+        }
+    }
+}
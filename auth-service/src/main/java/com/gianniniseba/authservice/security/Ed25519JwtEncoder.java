@@ -0,0 +1,107 @@
+package com.gianniniseba.authservice.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.KeyType;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+
+import java.net.URL;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * JwtEncoder para EdDSA (Ed25519). Equivalente a NimbusJwtEncoder, que solo soporta RSA/EC/HMAC.
+ * Firma con la clave OKP privada que elige el jwkSelector (por defecto la primera); el header lleva
+ * alg=EdDSA y el kid de esa clave.
+ */
+public class Ed25519JwtEncoder implements JwtEncoder {
+
+    private static final JWKMatcher SIGNING_KEY_MATCHER = new JWKMatcher.Builder()
+            .keyType(KeyType.OKP)
+            .curve(Curve.Ed25519)
+            .privateOnly(true)
+            .build();
+
+    private final JWKSource<SecurityContext> jwkSource;
+    private final Map<String, Ed25519Jws.Signer> signers = new ConcurrentHashMap<>();
+    private Converter<List<JWK>, JWK> jwkSelector = jwks -> jwks.get(0);
+
+    public Ed25519JwtEncoder(JWKSource<SecurityContext> jwkSource) {
+        this.jwkSource = jwkSource;
+    }
+
+    public void setJwkSelector(Converter<List<JWK>, JWK> jwkSelector) {
+        this.jwkSelector = jwkSelector;
+    }
+
+    @Override
+    public Jwt encode(JwtEncoderParameters parameters) throws JwtEncodingException {
+        JwtClaimsSet claims = parameters.getClaims();
+        try {
+            OctetKeyPair jwk = selectJwk();
+            JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.EdDSA)
+                    .keyID(jwk.getKeyID())
+                    .build();
+
+            SignedJWT signedJwt = new SignedJWT(header, convert(claims));
+            signedJwt.sign(signer(jwk));
+
+            return new Jwt(signedJwt.serialize(), claims.getIssuedAt(), claims.getExpiresAt(),
+                    header.toJSONObject(), claims.getClaims());
+        } catch (JwtEncodingException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new JwtEncodingException("Error al firmar el JWT con Ed25519: " + ex.getMessage(), ex);
+        }
+    }
+
+    private OctetKeyPair selectJwk() throws Exception {
+        List<JWK> jwks = jwkSource.get(new JWKSelector(SIGNING_KEY_MATCHER), null);
+        if (jwks.isEmpty()) {
+            throw new JwtEncodingException("No hay clave Ed25519 disponible para firmar");
+        }
+        return jwkSelector.convert(jwks).toOctetKeyPair();
+    }
+
+    private Ed25519Jws.Signer signer(OctetKeyPair jwk) {
+        String cacheKey = jwk.getKeyID() != null ? jwk.getKeyID() : jwk.getX().toString();
+        return signers.computeIfAbsent(cacheKey, key -> {
+            try {
+                return new Ed25519Jws.Signer(jwk);
+            } catch (Exception ex) {
+                throw new JwtEncodingException("Clave Ed25519 invalida", ex);
+            }
+        });
+    }
+
+    private static JWTClaimsSet convert(JwtClaimsSet claims) {
+        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder();
+        claims.getClaims().forEach((name, value) -> {
+            if (value instanceof Instant instant) {
+                builder.claim(name, Date.from(instant));
+            } else if (value instanceof URL url) {
+                builder.claim(name, url.toExternalForm());
+            } else {
+                builder.claim(name, value);
+            }
+        });
+        return builder.build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.gianniniseba.authservice.security;
+
+import com.gianniniseba.authservice.entity.RoleName;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Extrae los roles del claim "authorities" o, si no esta, del claim "roles".
+ * Acepta ambas formas que emite/acepta el servicio: String separado por espacios o List de String.
+ * Los tokens de cliente (client_credentials) no tienen roles: en ese caso cada valor de "scope" se mapea
+ * a SCOPE_<scope>, como hace Spring Security por defecto.
+ *
+ * Solo existen unos pocos valores distintos del claim (combinaciones de RoleName), asi que el resultado
+ * se guarda por valor del claim y se devuelve la misma lista inmutable en cada request:
+ * sin regex, sin streams y sin nuevos SimpleGrantedAuthority en el camino caliente.
+ */
+public class JwtAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    private static final String AUTHORITIES_CLAIM = "authorities";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String SCOPE_PREFIX = "SCOPE_";
+
+    // Tope de valores distintos cacheados; los tokens estan firmados, pero no queremos crecer sin limite
+    private static final int MAX_CACHED_CLAIM_VALUES = 256;
+
+    private static final Map<RoleName, GrantedAuthority> ROLE_AUTHORITIES = new EnumMap<>(RoleName.class);
+
+    static {
+        for (RoleName roleName : RoleName.values()) {
+            ROLE_AUTHORITIES.put(roleName, new SimpleGrantedAuthority(roleName.name()));
+        }
+    }
+
+    private final Map<Object, List<GrantedAuthority>> cache = new ConcurrentHashMap<>();
+    private final Map<Object, List<GrantedAuthority>> scopeCache = new ConcurrentHashMap<>();
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        Map<String, Object> claims = jwt.getClaims();
+
+        Object authoritiesClaim = claims.get(AUTHORITIES_CLAIM);
+        if (authoritiesClaim instanceof String || authoritiesClaim instanceof List) {
+            return resolve(cache, authoritiesClaim, "");
+        }
+
+        // Si no hay authorities, intentamos con "roles"
+        Object rolesClaim = claims.get(ROLES_CLAIM);
+        if (rolesClaim instanceof String || rolesClaim instanceof List) {
+            return resolve(cache, rolesClaim, "");
+        }
+
+        Object scopeClaim = claims.get(SCOPE_CLAIM);
+        if (scopeClaim instanceof String || scopeClaim instanceof List) {
+            return resolve(scopeCache, scopeClaim, SCOPE_PREFIX);
+        }
+
+        return Collections.emptyList();
+    }
+
+    private static List<GrantedAuthority> resolve(Map<Object, List<GrantedAuthority>> cache, Object claimValue, String prefix) {
+        List<GrantedAuthority> cached = cache.get(claimValue);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<GrantedAuthority> authorities;
+        Object key;
+        if (claimValue instanceof String value) {
+            authorities = parse(value, prefix);
+            key = value;
+        } else {
+            List<String> values = toStrings((List<?>) claimValue);
+            authorities = fromList(values, prefix);
+            key = values;
+        }
+
+        if (cache.size() < MAX_CACHED_CLAIM_VALUES) {
+            List<GrantedAuthority> previous = cache.putIfAbsent(key, authorities);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return authorities;
+    }
+
+    private static List<GrantedAuthority> parse(String value, String prefix) {
+        List<GrantedAuthority> authorities = new ArrayList<>(2);
+        int length = value.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(value.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(value.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                authorities.add(authority(prefix + value.substring(start, i)));
+            }
+        }
+        return List.copyOf(authorities);
+    }
+
+    private static List<GrantedAuthority> fromList(List<String> values, String prefix) {
+        List<GrantedAuthority> authorities = new ArrayList<>(values.size());
+        for (String value : values) {
+            if (!value.isBlank()) {
+                authorities.add(authority(prefix + value));
+            }
+        }
+        return List.copyOf(authorities);
+    }
+
+    // Copia inmutable del claim para usarla como clave (equals/hashCode por valor, igual que la List original)
+    private static List<String> toStrings(List<?> values) {
+        List<String> strings = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value != null) {
+                strings.add(value.toString());
+            }
+        }
+        return Collections.unmodifiableList(strings);
+    }
+
+    private static GrantedAuthority authority(String name) {
+        for (Map.Entry<RoleName, GrantedAuthority> entry : ROLE_AUTHORITIES.entrySet()) {
+            if (entry.getKey().name().equals(name)) {
+                return entry.getValue();
+            }
+        }
+        return new SimpleGrantedAuthority(name);
+    }
+}
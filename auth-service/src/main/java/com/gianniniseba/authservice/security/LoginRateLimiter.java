@@ -0,0 +1,117 @@
+package com.gianniniseba.authservice.security;
+
+import com.gianniniseba.authservice.exception.TooManyLoginAttemptsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+ * Limite de intentos de /auth/login por username y por IP, antes de tocar la base o BCrypt.
+ *
+ * Token bucket en forma GCRA: por clave se guarda un unico long (el "theoretical arrival time") en un AtomicLong
+ * y cada intento lo avanza con compareAndSet, sin locks. Las claves viven en una tabla Caffeine acotada
+ * (max-keys); una entrada sin uso durante el tiempo de recarga completa equivale a un bucket lleno, asi que
+ * expira sin perder informacion.
+ *
+ * El username se normaliza a minusculas, igual que lo compara el login (lower(username)): si no, cada
+ * variante de mayusculas ("Bob", "bOb", ...) tendria un bucket nuevo.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final long NOT_USED = Long.MIN_VALUE;
+
+    private final boolean enabled;
+    private final Bucket usernameBuckets;
+    private final Bucket ipBuckets;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.login.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${auth.login.rate-limit.max-keys:100000}") long maxKeys,
+                            @Value("${auth.login.rate-limit.username.capacity:5}") int usernameCapacity,
+                            @Value("${auth.login.rate-limit.username.per-minute:5}") int usernamePerMinute,
+                            @Value("${auth.login.rate-limit.ip.capacity:50}") int ipCapacity,
+                            @Value("${auth.login.rate-limit.ip.per-minute:60}") int ipPerMinute) {
+        this(meterRegistry, enabled, maxKeys, usernameCapacity, usernamePerMinute, ipCapacity, ipPerMinute, System::nanoTime);
+    }
+
+    LoginRateLimiter(MeterRegistry meterRegistry, boolean enabled, long maxKeys,
+                     int usernameCapacity, int usernamePerMinute, int ipCapacity, int ipPerMinute,
+                     LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.nanoClock = nanoClock;
+        this.usernameBuckets = new Bucket("username", usernameCapacity, usernamePerMinute, maxKeys, meterRegistry);
+        this.ipBuckets = new Bucket("ip", ipCapacity, ipPerMinute, maxKeys, meterRegistry);
+    }
+
+    public void check(String username, String clientIp) {
+        long waitNanos = tryAcquire(username, clientIp);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new TooManyLoginAttemptsException(
+                    "Demasiados intentos de login, intente nuevamente en unos segundos.", retryAfterSeconds);
+        }
+    }
+
+    // 0 si el intento esta permitido; si no, cuanto falta (en nanos) para el proximo permitido
+    public long tryAcquire(String username, String clientIp) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        long waitNanos = ipBuckets.acquire(clientIp, now);
+        return waitNanos > 0 ? waitNanos : usernameBuckets.acquire(username != null ? username.toLowerCase(Locale.ROOT) : null, now);
+    }
+
+    private static final class Bucket {
+
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final Cache<String, AtomicLong> arrivals;
+        private final Counter rejected;
+
+        private Bucket(String name, int capacity, int perMinute, long maxKeys, MeterRegistry meterRegistry) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.burstNanos = intervalNanos * Math.max(1, capacity);
+            this.arrivals = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(Duration.ofNanos(burstNanos))
+                    .build();
+            this.rejected = Counter.builder("auth.login.rate_limited")
+                    .description("Intentos de login rechazados por limite de frecuencia")
+                    .tag("limit", name)
+                    .register(meterRegistry);
+        }
+
+        private long acquire(String key, long now) {
+            if (key == null) {
+                return 0;
+            }
+            AtomicLong arrival = arrivals.get(key, k -> new AtomicLong(NOT_USED));
+            while (true) {
+                long current = arrival.get();
+                long base = current == NOT_USED ? now : Math.max(current, now);
+                long allowedAt = base + intervalNanos - burstNanos;
+                if (allowedAt > now) {
+                    rejected.increment();
+                    return allowedAt - now;
+                }
+                if (arrival.compareAndSet(current, base + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.gianniniseba.authservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/*
+ * Borra de oauth2_authorization las autorizaciones cuyo token de mayor duracion ya vencio
+ * (refresh token; si no tiene, access token; si tampoco, authorization code).
+ *
+ * Lotes de batch-size filas, cada uno en su propia sentencia: cada DELETE toma pocos locks y por poco tiempo,
+ * asi no compite con los /oauth2/token en curso. Cada rama del WHERE usa el indice de su columna de vencimiento.
+ */
+@Slf4j
+@Component
+public class OAuth2AuthorizationSweeper {
+
+    private static final String DELETE_EXPIRED_BATCH =
+            "delete from oauth2_authorization where id in ("
+                    + "select id from oauth2_authorization where refresh_token_expires_at < ? "
+                    + "union all select id from oauth2_authorization where refresh_token_expires_at is null "
+                    + "and access_token_expires_at < ? "
+                    + "union all select id from oauth2_authorization where refresh_token_expires_at is null "
+                    + "and access_token_expires_at is null and authorization_code_expires_at < ? "
+                    + "limit ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Counter sweptCounter;
+
+    public OAuth2AuthorizationSweeper(JdbcTemplate jdbcTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${auth.oauth2.authorization-sweep.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.sweptCounter = Counter.builder("auth.oauth2.authorizations.swept")
+                .description("Autorizaciones OAuth2 vencidas eliminadas")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.oauth2.authorization-sweep.interval:PT10M}",
+            initialDelayString = "${auth.oauth2.authorization-sweep.interval:PT10M}")
+    public void sweep() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_EXPIRED_BATCH, now, now, now, batchSize);
+            total += deleted;
+            sweptCounter.increment(deleted);
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Se eliminaron {} autorizaciones OAuth2 vencidas", total);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.gianniniseba.authservice.security;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/*
+ * Rechaza los tokens revocados despues de validarlos. Va por fuera de CachingJwtDecoder,
+ * asi un token ya cacheado tambien se rechaza apenas se revoca.
+ */
+public class RevocationCheckingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final TokenRevocationList revocationList;
+
+    public RevocationCheckingJwtDecoder(JwtDecoder delegate, TokenRevocationList revocationList) {
+        this.delegate = delegate;
+        this.revocationList = revocationList;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt jwt = delegate.decode(token);
+        if (revocationList.isRevoked(jwt)) {
+            throw new BadJwtException("Token revocado");
+        }
+        return jwt;
+    }
+}
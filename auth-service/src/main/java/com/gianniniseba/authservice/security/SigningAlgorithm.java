@@ -0,0 +1,102 @@
+package com.gianniniseba.authservice.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+
+/*
+ * Algoritmo de firma de los access tokens (propiedad auth.jwt.signing-algorithm).
+ * RS256 es el comportamiento historico; ES256 y Ed25519 firman bastante mas rapido.
+ */
+public enum SigningAlgorithm implements JwsAlgorithm {
+
+    RS256("RS256", JWSAlgorithm.RS256, "RSA"),
+    ES256("ES256", JWSAlgorithm.ES256, "EC"),
+    ED25519("EdDSA", JWSAlgorithm.EdDSA, "Ed25519");
+
+    private final String name;
+    private final JWSAlgorithm jwsAlgorithm;
+    private final String keyAlgorithm;
+
+    SigningAlgorithm(String name, JWSAlgorithm jwsAlgorithm, String keyAlgorithm) {
+        this.name = name;
+        this.jwsAlgorithm = jwsAlgorithm;
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
+    public static SigningAlgorithm from(String value) {
+        String normalized = value.trim();
+        for (SigningAlgorithm algorithm : values()) {
+            if (algorithm.name().equalsIgnoreCase(normalized) || algorithm.name.equalsIgnoreCase(normalized)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Algoritmo de firma no soportado: " + value
+                + " (valores validos: RS256, ES256, Ed25519)");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public JWSAlgorithm getJwsAlgorithm() {
+        return jwsAlgorithm;
+    }
+
+    // Nombre JCA del tipo de clave (KeyFactory / KeyPairGenerator)
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator keyPairGenerator = switch (this) {
+                case RS256 -> {
+                    KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm);
+                    generator.initialize(2048);
+                    yield generator;
+                }
+                case ES256 -> {
+                    KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm);
+                    generator.initialize(new ECGenParameterSpec("secp256r1"));
+                    yield generator;
+                }
+                case ED25519 -> KeyPairGenerator.getInstance(keyAlgorithm);
+            };
+            return keyPairGenerator.generateKeyPair();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public JWK toJwk(KeyPair keyPair, String keyId) {
+        return switch (this) {
+            case RS256 -> new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                    .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(jwsAlgorithm)
+                    .keyID(keyId)
+                    .build();
+            case ES256 -> new ECKey.Builder(Curve.P_256, (ECPublicKey) keyPair.getPublic())
+                    .privateKey((ECPrivateKey) keyPair.getPrivate())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(jwsAlgorithm)
+                    .keyID(keyId)
+                    .build();
+            case ED25519 -> Ed25519Jws.toJwk(keyPair, keyId);
+        };
+    }
+}
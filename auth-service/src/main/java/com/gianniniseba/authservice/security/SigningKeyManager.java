@@ -0,0 +1,469 @@
+package com.gianniniseba.authservice.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/*
+ * JWK Source con varias claves de firma, elegidas por "kid".
+ *
+ * Las claves se guardan en un directorio como "<activacion-epoch-segundos>_<kid>.pem" (PRIVATE KEY + PUBLIC KEY),
+ * de modo que todas las instancias que comparten el directorio firman y verifican con las mismas claves
+ * y los tokens sobreviven a un reinicio.
+ *
+ * Rotacion: cuando la clave vigente cumple rotation-interval se crea una nueva que se activa
+ * activation-delay mas tarde. Mientras tanto ya se publica en el JWKS y el resto de los nodos la carga,
+ * asi nadie recibe un token firmado con una clave que todavia no conoce. Una clave reemplazada sigue
+ * verificando durante verification-grace (>= vida del access token) y despues se elimina.
+ *
+ * Las claves nuevas las crea un solo nodo: el que toma el lock ".keys.lock" (createFile es atomico).
+ * Arranque en frio con el directorio vacio: el resto espera a que aparezca la primera clave y la adopta;
+ * si cada nodo firmara con una clave propia, los demas rechazarian sus tokens hasta el proximo refresh().
+ * Rotacion: quien no toma el lock no rota en esa pasada y carga la clave del otro nodo en el siguiente refresh();
+ * con el lock, se relee el directorio y no se crea nada si otro nodo ya roto.
+ *
+ * Sin directorio configurado las claves viven solo en memoria (comportamiento anterior).
+ *
+ * initializeInBackground lee (o genera) las claves en otro hilo mientras sigue el arranque del contexto;
+ * quien las necesita antes espera. Como SmartLifecycle, start() espera la carga antes de que arranque
+ * el servidor web, asi un directorio invalido sigue impidiendo el arranque.
+ */
+@Slf4j
+public class SigningKeyManager implements JWKSource<SecurityContext>, SmartLifecycle {
+
+    private static final String FILE_SUFFIX = ".pem";
+    private static final String PRIVATE_KEY_LABEL = "PRIVATE KEY";
+    private static final String PUBLIC_KEY_LABEL = "PUBLIC KEY";
+    private static final String KEYS_LOCK = ".keys.lock";
+    // Pasado este tiempo se asume que el nodo que tomo el lock murio antes de escribir la clave
+    private static final Duration LOCK_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration BOOTSTRAP_POLL = Duration.ofMillis(100);
+
+    private record StoredKey(JWK jwk, Instant activatesAt) {
+    }
+
+    private final SigningAlgorithm algorithm;
+    private final Path directory;
+    private final Duration rotationInterval;
+    private final Duration activationDelay;
+    private final Duration verificationGrace;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private volatile boolean running;
+
+    // Ordenadas de la mas nueva a la mas vieja
+    private volatile List<StoredKey> keys = List.of();
+    private volatile JWKSet jwkSet = new JWKSet();
+    private volatile String activeKeyId;
+
+    public SigningKeyManager(SigningAlgorithm algorithm, Path directory, Duration rotationInterval,
+                             Duration activationDelay, Duration verificationGrace, Clock clock) {
+        this.algorithm = algorithm;
+        this.directory = directory;
+        this.rotationInterval = rotationInterval;
+        this.activationDelay = activationDelay;
+        this.verificationGrace = verificationGrace;
+        this.clock = clock;
+    }
+
+    public static SigningKeyManager inMemory(SigningAlgorithm algorithm) {
+        SigningKeyManager manager = new SigningKeyManager(algorithm, null, Duration.ofDays(30),
+                Duration.ZERO, Duration.ofHours(2), Clock.systemUTC());
+        manager.initialize();
+        return manager;
+    }
+
+    public void initializeInBackground() {
+        Thread.ofPlatform().name("signing-key-init").daemon().start(() -> {
+            try {
+                initialize();
+            } catch (RuntimeException ex) {
+                log.error("Error al inicializar las claves de firma", ex);
+            }
+        });
+    }
+
+    public void initialize() {
+        lock.lock();
+        try {
+            if (directory == null) {
+                log.warn("auth.jwt.keys.directory no configurado: las claves de firma solo viven en memoria");
+            } else {
+                Files.createDirectories(directory);
+            }
+            List<StoredKey> loaded = loadKeys();
+            if (!hasActiveKey(loaded, clock.instant())) {
+                loaded = bootstrap(loaded);
+            }
+            publish(loaded, clock.instant());
+            ready.complete(null);
+        } catch (IOException ex) {
+            IllegalStateException failure = new IllegalStateException("No se pudo inicializar el directorio de claves " + directory, ex);
+            ready.completeExceptionally(failure);
+            throw failure;
+        } catch (RuntimeException ex) {
+            ready.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Relee el directorio (claves creadas por otros nodos), rota si corresponde y descarta las vencidas.
+     */
+    @Scheduled(fixedDelayString = "${auth.jwt.keys.check-interval:PT1M}",
+            initialDelayString = "${auth.jwt.keys.check-interval:PT1M}")
+    public void refresh() {
+        if (!ready.isDone()) {
+            return;
+        }
+        lock.lock();
+        try {
+            Instant now = clock.instant();
+            List<StoredKey> current = directory != null ? loadKeys() : keys;
+
+            if (needsRotation(current, now)) {
+                current = rotate(current, now);
+            }
+
+            publish(prune(current, now), now);
+        } catch (RuntimeException ex) {
+            log.error("Error al refrescar las claves de firma", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        awaitReady();
+        return jwkSelector.select(jwkSet);
+    }
+
+    /*
+     * Selector para el JwtEncoder: entre las claves candidatas usa la activa.
+     */
+    public JWK selectSigningKey(List<JWK> candidates) {
+        awaitReady();
+        String kid = activeKeyId;
+        for (JWK candidate : candidates) {
+            if (candidate.getKeyID().equals(kid)) {
+                return candidate;
+            }
+        }
+        throw new JwtEncodingException("No se encontro la clave de firma activa " + kid);
+    }
+
+    public String getActiveKeyId() {
+        awaitReady();
+        return activeKeyId;
+    }
+
+    public JWKSet getJwkSet() {
+        awaitReady();
+        return jwkSet;
+    }
+
+    @Override
+    public void start() {
+        awaitReady();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Antes que el servidor web (WebServerStartStopLifecycle)
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void awaitReady() {
+        if (ready.isDone() && !ready.isCompletedExceptionally()) {
+            return;
+        }
+        try {
+            ready.join();
+        } catch (CompletionException ex) {
+            throw new IllegalStateException("Las claves de firma no estan disponibles", ex.getCause());
+        }
+    }
+
+    private List<StoredKey> bootstrap(List<StoredKey> loaded) throws IOException {
+        if (directory == null) {
+            return withNewKey(loaded, clock.instant());
+        }
+
+        Path lockFile = directory.resolve(KEYS_LOCK);
+        long deadline = System.nanoTime() + LOCK_TIMEOUT.toNanos();
+        while (true) {
+            try {
+                Files.createFile(lockFile);
+            } catch (FileAlreadyExistsException ex) {
+                // Otro nodo esta creando la primera clave: se espera y se adopta la suya
+                List<StoredKey> current = loadKeys();
+                if (hasActiveKey(current, clock.instant())) {
+                    return current;
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    log.warn("Se descarta el lock de arranque abandonado {}", lockFile);
+                    Files.deleteIfExists(lockFile);
+                    deadline = System.nanoTime() + LOCK_TIMEOUT.toNanos();
+                } else {
+                    sleep(BOOTSTRAP_POLL);
+                }
+                continue;
+            }
+
+            try {
+                // Se vuelve a leer: otro nodo pudo terminar entre la primera lectura y el lock
+                List<StoredKey> current = loadKeys();
+                Instant now = clock.instant();
+                return hasActiveKey(current, now) ? current : withNewKey(current, now);
+            } finally {
+                Files.deleteIfExists(lockFile);
+            }
+        }
+    }
+
+    private boolean needsRotation(List<StoredKey> current, Instant now) {
+        return current.isEmpty() || !current.get(0).activatesAt().plus(rotationInterval).isAfter(now.plus(activationDelay));
+    }
+
+    private List<StoredKey> rotate(List<StoredKey> current, Instant now) {
+        Instant activatesAt = now.plus(activationDelay);
+        if (directory == null) {
+            return withNewKey(current, activatesAt);
+        }
+
+        Path lockFile = directory.resolve(KEYS_LOCK);
+        try {
+            if (!tryLock(lockFile)) {
+                return current;
+            }
+            try {
+                // Otro nodo pudo rotar entre la lectura y el lock
+                List<StoredKey> latest = loadKeys();
+                return needsRotation(latest, now) ? withNewKey(latest, activatesAt) : latest;
+            } finally {
+                Files.deleteIfExists(lockFile);
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("No se pudo rotar la clave de firma en " + directory, ex);
+        }
+    }
+
+    // Sin esperar: si otro nodo tiene el lock se rota en el proximo refresh (o se adopta su clave)
+    private static boolean tryLock(Path lockFile) throws IOException {
+        try {
+            Files.createFile(lockFile);
+            return true;
+        } catch (FileAlreadyExistsException ex) {
+            try {
+                // Hora real del archivo, no la del clock de la aplicacion
+                if (Files.getLastModifiedTime(lockFile).toInstant().plus(LOCK_TIMEOUT).isBefore(Instant.now())) {
+                    log.warn("Se descarta el lock de claves abandonado {}", lockFile);
+                    Files.deleteIfExists(lockFile);
+                }
+            } catch (NoSuchFileException released) {
+                // El otro nodo termino mientras tanto
+            }
+            return false;
+        }
+    }
+
+    private static boolean hasActiveKey(List<StoredKey> current, Instant now) {
+        return current.stream().anyMatch(key -> !key.activatesAt().isAfter(now));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando la clave de firma inicial", ex);
+        }
+    }
+
+    private List<StoredKey> withNewKey(List<StoredKey> current, Instant activatesAt) {
+        String kid = UUID.randomUUID().toString();
+        KeyPair keyPair = algorithm.generateKeyPair();
+        if (directory != null) {
+            write(keyPair, kid, activatesAt);
+        }
+        log.info("Nueva clave de firma {} ({}), activa desde {}", kid, algorithm.getName(), activatesAt);
+
+        List<StoredKey> updated = new ArrayList<>(current);
+        updated.add(new StoredKey(algorithm.toJwk(keyPair, kid), activatesAt));
+        updated.sort(Comparator.comparing(StoredKey::activatesAt).reversed());
+        return updated;
+    }
+
+    // Una clave reemplazada deja de verificar verification-grace despues de que se activo su sucesora
+    private List<StoredKey> prune(List<StoredKey> current, Instant now) {
+        List<StoredKey> kept = new ArrayList<>();
+        Instant successorActivation = null;
+        for (StoredKey key : current) {
+            boolean expired = successorActivation != null
+                    && !successorActivation.isAfter(now)
+                    && successorActivation.plus(verificationGrace).isBefore(now);
+            if (expired) {
+                delete(key);
+            } else {
+                kept.add(key);
+            }
+            successorActivation = key.activatesAt();
+        }
+        return kept;
+    }
+
+    private void publish(List<StoredKey> current, Instant now) {
+        StoredKey active = current.stream()
+                .filter(key -> !key.activatesAt().isAfter(now))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No hay clave de firma activa"));
+
+        List<JWK> jwks = new ArrayList<>();
+        jwks.add(active.jwk());
+        current.stream().filter(key -> key != active).forEach(key -> jwks.add(key.jwk()));
+
+        this.keys = List.copyOf(current);
+        this.jwkSet = new JWKSet(jwks);
+        this.activeKeyId = active.jwk().getKeyID();
+    }
+
+    private List<StoredKey> loadKeys() {
+        if (directory == null) {
+            return new ArrayList<>(keys);
+        }
+
+        List<StoredKey> loaded = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(FILE_SUFFIX)).toList()) {
+                try {
+                    loaded.add(read(file));
+                } catch (Exception ex) {
+                    log.warn("Se ignora el archivo de clave {}: {}", file, ex.getMessage());
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("No se pudo leer el directorio de claves " + directory, ex);
+        }
+        loaded.sort(Comparator.comparing(StoredKey::activatesAt).reversed());
+        return loaded;
+    }
+
+    private StoredKey read(Path file) throws IOException, GeneralSecurityException {
+        String fileName = file.getFileName().toString();
+        String baseName = fileName.substring(0, fileName.length() - FILE_SUFFIX.length());
+        int separator = baseName.indexOf('_');
+        if (separator < 0) {
+            throw new IllegalArgumentException("nombre invalido, se espera <epoch>_<kid>.pem");
+        }
+        Instant activatesAt = Instant.ofEpochSecond(Long.parseLong(baseName.substring(0, separator)));
+        String kid = baseName.substring(separator + 1);
+
+        String pem = Files.readString(file, StandardCharsets.US_ASCII);
+        KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getKeyAlgorithm());
+        PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(pemBlock(pem, PRIVATE_KEY_LABEL)));
+        PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(pemBlock(pem, PUBLIC_KEY_LABEL)));
+
+        return new StoredKey(algorithm.toJwk(new KeyPair(publicKey, privateKey), kid), activatesAt);
+    }
+
+    private void write(KeyPair keyPair, String kid, Instant activatesAt) {
+        Path target = directory.resolve(activatesAt.getEpochSecond() + "_" + kid + FILE_SUFFIX);
+        String pem = toPem(PRIVATE_KEY_LABEL, keyPair.getPrivate().getEncoded())
+                + toPem(PUBLIC_KEY_LABEL, keyPair.getPublic().getEncoded());
+        try {
+            // Se escribe a un temporal y se mueve, para que otro nodo nunca lea un archivo a medias
+            Path temp = Files.createTempFile(directory, ".key-", ".tmp");
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+            }
+            Files.writeString(temp, pem, StandardCharsets.US_ASCII);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("No se pudo guardar la clave de firma " + target, ex);
+        }
+    }
+
+    private void delete(StoredKey key) {
+        log.info("Se retira la clave de firma {}", key.jwk().getKeyID());
+        if (directory == null) {
+            return;
+        }
+        Path file = directory.resolve(key.activatesAt().getEpochSecond() + "_" + key.jwk().getKeyID() + FILE_SUFFIX);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("No se pudo borrar la clave retirada {}: {}", file, ex.getMessage());
+        }
+    }
+
+    private static String toPem(String label, byte[] der) {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        return "-----BEGIN " + label + "-----\n" + body + "\n-----END " + label + "-----\n";
+    }
+
+    private static byte[] pemBlock(String pem, String label) {
+        String begin = "-----BEGIN " + label + "-----";
+        String end = "-----END " + label + "-----";
+        int start = pem.indexOf(begin);
+        int stop = pem.indexOf(end);
+        if (start < 0 || stop < start) {
+            throw new IllegalArgumentException("falta el bloque " + label);
+        }
+        return Base64.getMimeDecoder().decode(pem.substring(start + begin.length(), stop));
+    }
+}
@@ -0,0 +1,26 @@
+package com.gianniniseba.authservice.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/*
+ * SHA-256 de un token, en Base64 URL sin padding.
+ * Se usa como clave de cache para no retener el token completo en memoria.
+ */
+public final class TokenDigests {
+
+    private TokenDigests() {
+    }
+
+    public static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+}
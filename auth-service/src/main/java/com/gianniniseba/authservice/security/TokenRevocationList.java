@@ -0,0 +1,237 @@
+package com.gianniniseba.authservice.security;
+
+import com.gianniniseba.authservice.entity.RevokedToken;
+import com.gianniniseba.authservice.entity.UserRevocation;
+import com.gianniniseba.authservice.repository.RevokedTokenRepository;
+import com.gianniniseba.authservice.repository.UserRevocationRepository;
+import com.gianniniseba.authservice.service.OAuth2TokenService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Tokens revocados, consultados en cada request sin ir a la base.
+ *
+ * Por jti: un filtro de Bloom descarta en O(1) y sin locks la gran mayoria de los tokens (los no revocados);
+ * solo ante un posible positivo se consulta el set exacto (UUID -> exp). Por usuario: revokedBefore por username,
+ * que rechaza los tokens con "iat" anterior. El username se guarda y se compara en minusculas, como el login:
+ * revocar "BOB" tiene que alcanzar a los tokens con sub "bob".
+ *
+ * Las tablas revoked_tokens y user_revocations son la fuente de verdad: al arrancar se cargan las revocaciones
+ * vigentes y cada sync-interval se traen las nuevas (revocadas en otros nodos). Los vencidos se descartan
+ * en memoria y el filtro se reconstruye, porque un Bloom no permite quitar elementos.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    // Margen sobre la ultima sincronizacion: transacciones que confirmaron tarde o relojes desfasados
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRevocationRepository userRevocationRepository;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final Clock clock;
+
+    private final Map<UUID, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Instant> revokedBefore = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile BloomFilter filter;
+    private long filterCapacity;
+    private Instant lastSync;
+
+    @Autowired
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               UserRevocationRepository userRevocationRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${auth.revocation.expected-entries:100000}") long expectedEntries,
+                               @Value("${auth.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this(revokedTokenRepository, userRevocationRepository, expectedEntries, falsePositiveRate, Clock.systemUTC());
+        Gauge.builder("auth.revocation.tokens", revokedTokens, Map::size)
+                .description("Access tokens revocados y todavia no vencidos")
+                .register(meterRegistry);
+    }
+
+    TokenRevocationList(RevokedTokenRepository revokedTokenRepository, UserRevocationRepository userRevocationRepository,
+                        long expectedEntries, double falsePositiveRate, Clock clock) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRevocationRepository = userRevocationRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        rebuildFilter();
+    }
+
+    @PostConstruct
+    public void load() {
+        lock.lock();
+        try {
+            Instant now = clock.instant();
+            revokedTokens.clear();
+            revokedBefore.clear();
+            addTokens(revokedTokenRepository.findByExpiresAtAfter(now));
+            addUsers(userRevocationRepository.findByRevokedBeforeAfter(now.minus(OAuth2TokenService.ACCESS_TOKEN_TTL)));
+            rebuildFilter();
+            lastSync = now;
+            log.info("Revocaciones cargadas: {} tokens, {} usuarios", revokedTokens.size(), revokedBefore.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isRevoked(Jwt jwt) {
+        UUID jti = parseJti(jwt.getId());
+        if (jti != null && filter.mightContain(jti) && revokedTokens.containsKey(jti)) {
+            return true;
+        }
+        if (!revokedBefore.isEmpty() && jwt.getSubject() != null) {
+            Instant before = revokedBefore.get(normalize(jwt.getSubject()));
+            return before != null && (jwt.getIssuedAt() == null || jwt.getIssuedAt().isBefore(before));
+        }
+        return false;
+    }
+
+    // Tokens sin jti (emitidos antes de agregarlo) solo pueden revocarse por usuario
+    public void revoke(String jti, Instant expiresAt) {
+        UUID id = parseJti(jti);
+        if (id == null || expiresAt == null || !expiresAt.isAfter(clock.instant())) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .expiresAt(expiresAt)
+                .revokedAt(clock.instant())
+                .build());
+        lock.lock();
+        try {
+            addToken(id, expiresAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * "iat" tiene resolucion de segundos: se corta al segundo siguiente, asi un token emitido en el mismo
+     * segundo de la revocacion tambien queda revocado.
+     */
+    public void revokeAllForUser(String username) {
+        String key = normalize(username);
+        Instant now = clock.instant();
+        Instant before = now.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        userRevocationRepository.save(UserRevocation.builder()
+                .username(key)
+                .revokedBefore(before)
+                .revokedAt(now)
+                .build());
+        lock.lock();
+        try {
+            revokedBefore.merge(key, before, (current, added) -> added.isAfter(current) ? added : current);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval:PT15S}",
+            initialDelayString = "${auth.revocation.sync-interval:PT15S}")
+    public void sync() {
+        lock.lock();
+        try {
+            Instant now = clock.instant();
+            Instant since = lastSync.minus(SYNC_OVERLAP);
+            addTokens(revokedTokenRepository.findByRevokedAtGreaterThanEqual(since));
+            addUsers(userRevocationRepository.findByRevokedAtGreaterThanEqual(since));
+            lastSync = now;
+
+            boolean removed = revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            Instant oldestValidIssuedAt = now.minus(OAuth2TokenService.ACCESS_TOKEN_TTL);
+            revokedBefore.values().removeIf(before -> before.isBefore(oldestValidIssuedAt));
+            if (removed) {
+                rebuildFilter();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval:PT1H}",
+            initialDelayString = "${auth.revocation.purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        int tokens = revokedTokenRepository.deleteExpired(now);
+        int users = userRevocationRepository.deleteObsolete(now.minus(OAuth2TokenService.ACCESS_TOKEN_TTL));
+        if (tokens + users > 0) {
+            log.info("Se eliminaron {} tokens revocados vencidos y {} revocaciones por usuario", tokens, users);
+        }
+    }
+
+    private void addTokens(List<RevokedToken> tokens) {
+        for (RevokedToken token : tokens) {
+            UUID id = parseJti(token.getJti());
+            if (id != null) {
+                addToken(id, token.getExpiresAt());
+            }
+        }
+    }
+
+    private void addUsers(List<UserRevocation> revocations) {
+        for (UserRevocation revocation : revocations) {
+            // Las filas anteriores a la normalizacion pueden tener mayusculas
+            revokedBefore.merge(normalize(revocation.getUsername()), revocation.getRevokedBefore(),
+                    (current, added) -> added.isAfter(current) ? added : current);
+        }
+    }
+
+    // Primero el set exacto y despues el filtro: un lector nunca ve el filtro positivo sin la entrada
+    private void addToken(UUID id, Instant expiresAt) {
+        revokedTokens.put(id, expiresAt);
+        if (revokedTokens.size() > filterCapacity) {
+            rebuildFilter();
+        } else {
+            filter.add(id);
+        }
+    }
+
+    // Se llama con el lock tomado; el filtro nuevo se publica completo. Si se llena se duplica la capacidad
+    private void rebuildFilter() {
+        long capacity = Math.max(expectedEntries, revokedTokens.size() * 2L);
+        BloomFilter rebuilt = BloomFilter.create(capacity, falsePositiveRate);
+        revokedTokens.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+        filterCapacity = capacity;
+    }
+
+    private static String normalize(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static UUID parseJti(String jti) {
+        if (jti == null || jti.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(jti);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.UserPage;
+import com.gianniniseba.authservice.dto.UserResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+ * Listado y export de usuarios para administracion.
+ *
+ * Paginado por keyset sobre users.id (id > afterId order by id limit n): cada pagina usa el indice de la PK
+ * y cuesta lo mismo sin importar cuan profunda sea, a diferencia de OFFSET.
+ * El export recorre la tabla con un cursor JDBC (fetch-size filas por viaje, en una transaccion de solo lectura
+ * para que PostgreSQL no materialice el resultado) y escribe cada usuario al response apenas se completa.
+ */
+@Service
+public class AdminUserService {
+
+    // Las filas vienen ordenadas por id: los roles de un usuario llegan consecutivos
+    private static final String PAGE_QUERY =
+            "select u.id, u.username, u.email, u.last_login_at, u.login_count, r.name as role "
+                    + "from (select id, username, email, last_login_at, login_count from users where id > ? order by id limit ?) u "
+                    + "left join user_roles ur on ur.user_id = u.id "
+                    + "left join roles r on r.id = ur.role_id "
+                    + "order by u.id";
+    private static final String EXPORT_QUERY =
+            "select u.id, u.username, u.email, u.last_login_at, u.login_count, r.name as role "
+                    + "from users u "
+                    + "left join user_roles ur on ur.user_id = u.id "
+                    + "left join roles r on r.id = ur.role_id "
+                    + "order by u.id";
+    private static final byte[] NEW_LINE = {'\n'};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate exportJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+
+    public AdminUserService(JdbcTemplate jdbcTemplate,
+                            DataSource dataSource,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            @Value("${auth.admin.users.max-page-size:500}") int maxPageSize,
+                            @Value("${auth.admin.users.export-fetch-size:1000}") int exportFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportJdbcTemplate = new JdbcTemplate(dataSource);
+        this.exportJdbcTemplate.setFetchSize(exportFetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public UserPage page(long afterId, int limit) {
+        int pageSize = Math.clamp(limit, 1, maxPageSize);
+        List<UserResponse> users = new ArrayList<>(pageSize);
+        jdbcTemplate.query(PAGE_QUERY, new UserRowCollector(users::add), afterId, pageSize);
+
+        Long nextAfterId = users.size() == pageSize ? users.get(users.size() - 1).getId() : null;
+        return UserPage.builder()
+                .users(users)
+                .nextAfterId(nextAfterId)
+                .build();
+    }
+
+    // NDJSON: un usuario por linea
+    public void export(OutputStream outputStream) {
+        readOnlyTransaction.executeWithoutResult(status ->
+                exportJdbcTemplate.query(EXPORT_QUERY, new UserRowCollector(user -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(user));
+                        outputStream.write(NEW_LINE);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                })));
+    }
+
+    /*
+     * Agrupa las filas (usuario x rol) en un UserResponse por usuario y lo entrega apenas aparece el siguiente.
+     */
+    private static final class UserRowCollector implements ResultSetExtractor<Void> {
+
+        private final Consumer<UserResponse> consumer;
+
+        private UserRowCollector(Consumer<UserResponse> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public Void extractData(ResultSet rs) throws SQLException {
+            UserResponse current = null;
+            while (rs.next()) {
+                long id = rs.getLong("id");
+                if (current == null || current.getId() != id) {
+                    if (current != null) {
+                        consumer.accept(current);
+                    }
+                    current = UserResponse.builder()
+                            .id(id)
+                            .username(rs.getString("username"))
+                            .email(rs.getString("email"))
+                            .lastLoginAt(lastLoginAt(rs))
+                            .loginCount(rs.getLong("login_count"))
+                            .roles(new LinkedHashSet<>())
+                            .build();
+                }
+                String role = rs.getString("role");
+                if (role != null) {
+                    current.getRoles().add(role);
+                }
+            }
+            if (current != null) {
+                consumer.accept(current);
+            }
+            return null;
+        }
+
+        private static Instant lastLoginAt(ResultSet rs) throws SQLException {
+            OffsetDateTime lastLoginAt = rs.getObject("last_login_at", OffsetDateTime.class);
+            return lastLoginAt != null ? lastLoginAt.toInstant() : null;
+        }
+    }
+}
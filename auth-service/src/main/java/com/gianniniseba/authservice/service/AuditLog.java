@@ -0,0 +1,160 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.AuditEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Auditoria de autenticacion sin I/O en el request: record() solo encola el evento en un buffer acotado
+ * sin locks y un hilo de fondo los inserta en audit_events por lotes (batch JDBC de hasta batch-size filas).
+ * Con el buffer lleno el evento se descarta y se cuenta (auth.audit.events{outcome=dropped}); nunca se bloquea.
+ * Al detenerse la aplicacion se escribe lo que quede en el buffer.
+ */
+@Slf4j
+@Component
+public class AuditLog implements SmartLifecycle {
+
+    private static final String INSERT =
+            "insert into audit_events (event_type, username, client_ip, detail, occurred_at) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final AuditRingBuffer buffer;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLog(JdbcTemplate jdbcTemplate,
+                    MeterRegistry meterRegistry,
+                    @Value("${auth.audit.enabled:true}") boolean enabled,
+                    @Value("${auth.audit.buffer-capacity:8192}") int bufferCapacity,
+                    @Value("${auth.audit.batch-size:500}") int batchSize,
+                    @Value("${auth.audit.flush-interval:PT0.2S}") Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.buffer = new AuditRingBuffer(bufferCapacity);
+        this.writtenCounter = eventCounter(meterRegistry, "written");
+        this.droppedCounter = eventCounter(meterRegistry, "dropped");
+        this.failedCounter = eventCounter(meterRegistry, "failed");
+        Gauge.builder("auth.audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Eventos de auditoria pendientes de escribir")
+                .register(meterRegistry);
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.audit.events")
+                .description("Eventos de auditoria por resultado")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public void record(AuditEvent.Type type, String username, String detail) {
+        if (!enabled) {
+            return;
+        }
+        if (!buffer.offer(new AuditEvent(type, truncate(username, 100), clientIp(), truncate(detail, 200), Instant.now()))) {
+            droppedCounter.increment();
+        }
+    }
+
+    // IP del request en curso (RequestContextFilter corre antes que la cadena de seguridad)
+    private static String clientIp() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            return request.getRemoteAddr();
+        }
+        return null;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            write(batch);
+        }
+        flush(batch);
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, event) -> {
+                ps.setString(1, event.type().name());
+                ps.setString(2, event.username());
+                ps.setString(3, event.clientIp());
+                ps.setString(4, event.detail());
+                ps.setObject(5, OffsetDateTime.ofInstant(event.occurredAt(), ZoneOffset.UTC));
+            });
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException ex) {
+            failedCounter.increment(batch.size());
+            log.warn("No se pudieron guardar {} eventos de auditoria: {}", batch.size(), ex.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::writeLoop);
+    }
+
+    // Fase 0: se detiene despues del servidor web, cuando ya no entran requests
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -0,0 +1,81 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.AuditEvent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Cola acotada sin locks, varios productores y un solo consumidor (el writer de AuditLog).
+ * Cada celda lleva un numero de secuencia: vale n cuando la celda esta libre para la posicion n,
+ * y n + 1 cuando el productor ya publico el evento de esa posicion. offer() nunca espera: con la cola
+ * llena devuelve false y el evento se descarta.
+ */
+final class AuditRingBuffer {
+
+    private final AtomicReferenceArray<AuditEvent> events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.events = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(AuditEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events.setPlain(index, event);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // La celda todavia tiene el evento de la vuelta anterior: llena
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    // Solo desde el hilo consumidor
+    int drainTo(List<AuditEvent> sink, int max) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.getAcquire(index) != position + 1) {
+                break;
+            }
+            sink.add(events.getPlain(index));
+            events.setPlain(index, null);
+            sequences.setRelease(index, position + mask + 1);
+            position++;
+            drained++;
+        }
+        head.set(position);
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -1,45 +1,66 @@
 package com.gianniniseba.authservice.service;
 
+import com.gianniniseba.authservice.dto.AuditEvent;
 import com.gianniniseba.authservice.dto.AuthResponse;
 import com.gianniniseba.authservice.dto.LoginRequest;
+import com.gianniniseba.authservice.dto.RefreshRequest;
 import com.gianniniseba.authservice.dto.RegisterRequest;
+import com.gianniniseba.authservice.dto.UserCredentials;
 import com.gianniniseba.authservice.entity.Role;
 import com.gianniniseba.authservice.entity.RoleName;
 import com.gianniniseba.authservice.entity.User;
 import com.gianniniseba.authservice.exception.InvalidCredentialsException;
 import com.gianniniseba.authservice.exception.UserAlreadyExistsException;
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import com.gianniniseba.authservice.metrics.AuthMetrics.Phase;
 import com.gianniniseba.authservice.repository.RoleRepository;
 import com.gianniniseba.authservice.repository.UserRepository;
+import com.gianniniseba.authservice.security.TokenRevocationList;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
 import java.util.Set;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService implements IAuthService {
 
+    // Indices unicos de "users" (ver V1__users_and_roles.sql)
+    private static final String USERNAME_CONSTRAINT = "uk_users_username_lower";
+    private static final String EMAIL_CONSTRAINT = "uk_users_email_lower";
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final OAuth2TokenService oAuth2TokenService;
-
+    private final RoleRegistry roleRegistry;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList tokenRevocationList;
+    private final LoginActivityTracker loginActivityTracker;
+    private final AuditLog auditLog;
+    private final AuthMetrics authMetrics;
+    /*
+     * Un solo INSERT: username y email duplicados los detectan los indices unicos de "users"
+     * (sin existsBy previos, que ademas podian competir entre dos registros simultaneos).
+     */
     @Override
     public AuthResponse register(RegisterRequest request) {
+        return authMetrics.time(Phase.REGISTER, () -> doRegister(request));
+    }
 
-        if(userRepository.existsByUsername(request.getUsername())){
-            throw new UserAlreadyExistsException("El nombre de usuario ingresado ya se encuentra en uso.");
-        }
+    private AuthResponse doRegister(RegisterRequest request) {
 
-        if(userRepository.existsByEmail(request.getEmail())){
-            throw new UserAlreadyExistsException("El email ingresado ya se encuentra en uso.");
-        }
+        String encodedPassword = passwordHashingService.encode(request.getPassword());
 
-        String encodedPassword = passwordEncoder.encode(request.getPassword());
-
-        Role userRole = roleRepository.findByName(RoleName.ROLE_USER)
-                .orElseThrow( () -> new IllegalStateException("ROLE_USER no esta configurado en la base.") );
+        // El rol se asocia por referencia (solo su id), sin cargarlo
+        Role userRole = roleRepository.getReferenceById(roleRegistry.idOf(RoleName.ROLE_USER));
 
         User user = User.builder()
                 .username(request.getUsername())
@@ -49,7 +70,14 @@ public class AuthService implements IAuthService {
                 .roles(Set.of(userRole))
                 .build();
 
-        userRepository.save(user);
+        authMetrics.time(Phase.REGISTER_INSERT, () -> {
+            try {
+                return userRepository.saveAndFlush(user);
+            } catch (DataIntegrityViolationException ex) {
+                throw translateDuplicate(ex);
+            }
+        });
+        auditLog.record(AuditEvent.Type.REGISTER, user.getUsername(), null);
 
         return AuthResponse.builder()
                 .message("Usuario registrado exitosamente.")
@@ -58,23 +86,117 @@ public class AuthService implements IAuthService {
 
     }
 
+    /*
+     * Se distingue por el nombre del indice unico violado (migracion V1), no por el texto del mensaje del driver.
+     * Cualquier otro unico de "users" (p. ej. uno que dejo ddl-auto=update con nombre generado) sigue siendo
+     * un duplicado: mismo error que los otros (UserAlreadyExistsException) con un mensaje generico, no un 500.
+     */
+    private static RuntimeException translateDuplicate(DataIntegrityViolationException ex) {
+        ConstraintViolationException violation = constraintViolation(ex);
+        if (violation == null || violation.getKind() != ConstraintKind.UNIQUE) {
+            return ex;
+        }
+        String constraint = normalize(violation.getConstraintName());
+        if (USERNAME_CONSTRAINT.equals(constraint)) {
+            return new UserAlreadyExistsException("El nombre de usuario ingresado ya se encuentra en uso.");
+        }
+        if (EMAIL_CONSTRAINT.equals(constraint)) {
+            return new UserAlreadyExistsException("El email ingresado ya se encuentra en uso.");
+        }
+        log.warn("Registro rechazado por un indice unico no esperado de users: {}", violation.getConstraintName());
+        return new UserAlreadyExistsException("El nombre de usuario o el email ingresado ya se encuentra en uso.");
+    }
+
+    private static ConstraintViolationException constraintViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation;
+            }
+        }
+        return null;
+    }
+
+    // PostgreSQL lo informa tal cual; H2 con esquema y en mayusculas ("PUBLIC.UK_USERS_USERNAME_LOWER")
+    private static String normalize(String constraintName) {
+        if (constraintName == null) {
+            return null;
+        }
+        String name = constraintName.toLowerCase(Locale.ROOT);
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
     @Override
     public AuthResponse login(LoginRequest request) {
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(
-                        () -> new InvalidCredentialsException("Usuario o contraseña incorrectos.")
-                );
+        return authMetrics.time(Phase.LOGIN, () -> doLogin(request));
+    }
+
+    private AuthResponse doLogin(LoginRequest request) {
+        UserCredentials credentials = authMetrics.time(Phase.USER_LOOKUP,
+                        () -> userRepository.findCredentialsByUsername(request.getUsername()))
+                .orElseThrow(() -> {
+                    auditLog.record(AuditEvent.Type.LOGIN_FAILURE, request.getUsername(), "usuario inexistente");
+                    return new InvalidCredentialsException("Usuario o contraseña incorrectos.");
+                });
 
-        if(!passwordEncoder.matches(request.getPassword(), user.getPassword())){
+        if(!passwordHashingService.matches(request.getPassword(), credentials.password())){
+            auditLog.record(AuditEvent.Type.LOGIN_FAILURE, credentials.username(), "contraseña incorrecta");
             throw new InvalidCredentialsException("Usuario o contraseña incorrectos.");
 
         }
 
-        String token = oAuth2TokenService.generateAccessToken(user);
+        String token = oAuth2TokenService.generateAccessToken(credentials.username(), credentials.roles());
+        String refreshToken = refreshTokenService.issue(credentials.id());
+        loginActivityTracker.recordLogin(credentials.id());
+        auditLog.record(AuditEvent.Type.LOGIN_SUCCESS, credentials.username(), null);
+        auditLog.record(AuditEvent.Type.TOKEN_ISSUED, credentials.username(), "login");
 
         return AuthResponse.builder()
                 .message("Login exitoso.")
                 .token(token)
+                .refreshToken(refreshToken)
+                .build();
+    }
+
+    // Sin BCrypt: el refresh token se valida por su SHA-256 y se reemplaza por uno nuevo
+    @Override
+    public AuthResponse refresh(RefreshRequest request) {
+        return authMetrics.time(Phase.TOKEN_REFRESH, () -> {
+            RefreshTokenService.Rotation rotation;
+            try {
+                rotation = refreshTokenService.rotate(request.getRefreshToken());
+            } catch (InvalidCredentialsException ex) {
+                auditLog.record(AuditEvent.Type.TOKEN_REJECTED, null, "refresh token");
+                throw ex;
+            }
+            String token = oAuth2TokenService.generateAccessToken(rotation.username(), rotation.roles());
+            auditLog.record(AuditEvent.Type.TOKEN_ISSUED, rotation.username(), "refresh");
+
+            return AuthResponse.builder()
+                    .message("Token renovado.")
+                    .token(token)
+                    .refreshToken(rotation.refreshToken())
+                    .build();
+        });
+    }
+
+    // Revoca el access token actual (por jti) y, si se envia, el refresh token de la sesion
+    @Override
+    public AuthResponse logout(Jwt accessToken, String refreshToken) {
+        tokenRevocationList.revoke(accessToken.getId(), accessToken.getExpiresAt());
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+
+        return AuthResponse.builder()
+                .message("Sesion cerrada.")
+                .token(null)
                 .build();
     }
+
+    // Todos los access tokens emitidos hasta ahora quedan revocados y se borran sus refresh tokens
+    @Override
+    public void revokeAllForUser(String username) {
+        tokenRevocationList.revokeAllForUser(username);
+        refreshTokenService.revokeAllForUser(username);
+    }
 }
@@ -1,6 +1,6 @@
 package com.gianniniseba.authservice.service;
 
-import com.gianniniseba.authservice.entity.User;
+import com.gianniniseba.authservice.dto.UserCredentials;
 import com.gianniniseba.authservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -21,17 +21,17 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String username)
             throws UsernameNotFoundException {
 
-                User user = userRepository.findByUsername(username)
+                UserCredentials user = userRepository.findCredentialsByUsername(username)
                         .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado " + username));
 
-                List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
-                        .map(role -> new SimpleGrantedAuthority(role.getName().name()))
+                List<SimpleGrantedAuthority> authorities = user.roles().stream()
+                        .map(role -> new SimpleGrantedAuthority(role.name()))
                         .toList();
 
                 return new org.springframework.security.core.userdetails.User(
-                        user.getUsername(),
-                        user.getPassword(),
-                        user.isEnabled(),
+                        user.username(),
+                        user.password(),
+                        user.enabled(),
                         true,
                         true,
                         true,
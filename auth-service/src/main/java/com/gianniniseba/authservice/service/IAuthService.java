@@ -2,11 +2,16 @@ package com.gianniniseba.authservice.service;
 
 import com.gianniniseba.authservice.dto.AuthResponse;
 import com.gianniniseba.authservice.dto.LoginRequest;
+import com.gianniniseba.authservice.dto.RefreshRequest;
 import com.gianniniseba.authservice.dto.RegisterRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
 
 public interface IAuthService {
 
     AuthResponse register(RegisterRequest request);
     AuthResponse login(LoginRequest request);
+    AuthResponse refresh(RefreshRequest request);
+    AuthResponse logout(Jwt accessToken, String refreshToken);
+    void revokeAllForUser(String username);
 
 }
@@ -0,0 +1,143 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import com.gianniniseba.authservice.metrics.AuthMetrics.Phase;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * users.last_login_at y users.login_count con write-behind: el login solo acumula en memoria
+ * (cantidad y ultimo instante por usuario) y cada flush-interval se aplica todo con un UPDATE en lote por JDBC,
+ * sin cargar la entidad ni pasar por dirty checking / @PreUpdate. Al detenerse la aplicacion se hace un ultimo flush.
+ *
+ * login_count se incrementa (no se pisa) y last_login_at solo avanza: varias instancias pueden escribir el mismo usuario.
+ * Cada tanda de batch-size usuarios va en su propia transaccion: si una falla se revierte entera y solo esos usuarios
+ * se vuelven a acumular para el proximo flush (las tandas ya confirmadas no se reintentan, asi no se cuentan dos veces).
+ */
+@Slf4j
+@Component
+public class LoginActivityTracker implements SmartLifecycle {
+
+    private static final String UPDATE =
+            "update users set login_count = login_count + ?, "
+                    + "last_login_at = greatest(coalesce(last_login_at, ?), ?) where id = ?";
+
+    record Pending(long count, Instant lastLoginAt) {
+
+        Pending plus(Pending other) {
+            return new Pending(count + other.count,
+                    lastLoginAt.isAfter(other.lastLoginAt) ? lastLoginAt : other.lastLoginAt);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthMetrics authMetrics;
+    private final int batchSize;
+    private final Clock clock;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    @Autowired
+    public LoginActivityTracker(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                AuthMetrics authMetrics,
+                                MeterRegistry meterRegistry,
+                                @Value("${auth.login-activity.batch-size:500}") int batchSize) {
+        this(jdbcTemplate, transactionManager, authMetrics, batchSize, Clock.systemUTC());
+        Gauge.builder("auth.login.activity.pending", pending, Map::size)
+                .description("Usuarios con ultimo login / contador pendientes de escribir")
+                .register(meterRegistry);
+    }
+
+    LoginActivityTracker(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                         AuthMetrics authMetrics, int batchSize, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.authMetrics = authMetrics;
+        this.batchSize = batchSize;
+        this.clock = clock;
+    }
+
+    public void recordLogin(Long userId) {
+        pending.merge(userId, new Pending(1, clock.instant()), Pending::plus);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login-activity.flush-interval:PT10S}",
+            initialDelayString = "${auth.login-activity.flush-interval:PT10S}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // remove() es atomico con merge(): un login concurrente queda en esta tanda o en la siguiente, nunca se pierde
+        List<Map.Entry<Long, Pending>> batch = new ArrayList<>(pending.size());
+        for (Long userId : pending.keySet()) {
+            Pending removed = pending.remove(userId);
+            if (removed != null) {
+                batch.add(Map.entry(userId, removed));
+            }
+        }
+
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<Map.Entry<Long, Pending>> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+            try {
+                authMetrics.time(Phase.LOGIN_ACTIVITY_FLUSH, () -> transactionTemplate.execute(status ->
+                        jdbcTemplate.batchUpdate(UPDATE, chunk, chunk.size(), (ps, entry) -> {
+                            OffsetDateTime lastLoginAt = OffsetDateTime.ofInstant(entry.getValue().lastLoginAt(), ZoneOffset.UTC);
+                            ps.setLong(1, entry.getValue().count());
+                            ps.setObject(2, lastLoginAt);
+                            ps.setObject(3, lastLoginAt);
+                            ps.setLong(4, entry.getKey());
+                        })));
+            } catch (RuntimeException ex) {
+                chunk.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), Pending::plus));
+                log.warn("No se pudo guardar la actividad de login de {} usuarios: {}", chunk.size(), ex.getMessage());
+            }
+        }
+    }
+
+    int pendingUsers() {
+        return pending.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    // Fase 0: despues de detener el servidor web, con la base todavia disponible
+    @Override
+    public void stop() {
+        running = false;
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -1,40 +1,60 @@
 package com.gianniniseba.authservice.service;
 
+import com.gianniniseba.authservice.entity.Role;
+import com.gianniniseba.authservice.entity.RoleName;
 import com.gianniniseba.authservice.entity.User;
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import com.gianniniseba.authservice.security.SigningAlgorithm;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OAuth2TokenService {
 
+    public static final Duration ACCESS_TOKEN_TTL = Duration.ofHours(1);
+
     private final JwtEncoder jwtEncoder;
+    private final SigningAlgorithm signingAlgorithm;
+    private final AuthMetrics authMetrics;
 
     public String generateAccessToken(User user) {
+        return generateAccessToken(user.getUsername(), user.getRoles().stream().map(Role::getName).toList());
+    }
+
+    public String generateAccessToken(String username, Collection<RoleName> roles) {
         Instant now = Instant.now();
-        Instant expiry = now.plusSeconds(3600); // 1 hora
+        Instant expiry = now.plus(ACCESS_TOKEN_TTL);
 
-        String authorities = user.getRoles().stream()
-                .map(role -> role.getName().name())
+        String authorities = roles.stream()
+                .map(RoleName::name)
                 .collect(Collectors.joining(" "));
 
         JwtClaimsSet claims = JwtClaimsSet.builder()
                 .issuer("http://localhost:8080")
                 .issuedAt(now)
                 .expiresAt(expiry)
-                .subject(user.getUsername())
+                .subject(username)
+                .id(UUID.randomUUID().toString()) // jti: permite revocar el token (logout)
                 .claim("scope", "read write openid profile")
                 .claim("authorities", authorities)
                 .claim("roles", authorities)
                 .build();
 
-        return jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+        JwsHeader header = JwsHeader.with(signingAlgorithm).build();
+
+        return authMetrics.time(AuthMetrics.Phase.TOKEN_SIGN,
+                () -> jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue());
     }
 }
 
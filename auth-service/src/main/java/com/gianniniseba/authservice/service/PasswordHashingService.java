@@ -0,0 +1,120 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.exception.HashingCapacityExceededException;
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Ejecuta BCrypt (encode / matches) en un pool acotado, separado de los hilos de Tomcat.
+ * Si la cola esta llena se rechaza de inmediato con HashingCapacityExceededException (503 + Retry-After)
+ * en lugar de dejar que la latencia crezca sin limite.
+ * Metricas: executor.* con tag name=password.hashing (cola, activos, tiempo de espera en executor.idle)
+ * y auth.hashing.rejected. La latencia de cada operacion (espera + hash) va a auth.password.encode / match.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final String EXECUTOR_NAME = "password.hashing";
+
+    private final PasswordEncoder passwordEncoder;
+    private final AuthMetrics authMetrics;
+    private final ThreadPoolExecutor threadPool;
+    private final ExecutorService executor;
+    private final Counter rejectedCounter;
+    private final long retryAfterSeconds;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  AuthMetrics authMetrics,
+                                  @Value("${auth.hashing.pool-size:0}") int poolSize,
+                                  @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${auth.hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.authMetrics = authMetrics;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+
+        this.threadPool = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                queue,
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, EXECUTOR_NAME);
+        this.rejectedCounter = Counter.builder("auth.hashing.rejected")
+                .description("Operaciones de hash rechazadas por cola llena")
+                .register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return authMetrics.time(AuthMetrics.Phase.PASSWORD_ENCODE, () -> submit(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            boolean matches = submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+            authMetrics.record(AuthMetrics.Phase.PASSWORD_MATCH,
+                    matches ? AuthMetrics.Outcome.SUCCESS : AuthMetrics.Outcome.BAD_CREDENTIALS, start);
+            return matches;
+        } catch (RuntimeException ex) {
+            authMetrics.record(AuthMetrics.Phase.PASSWORD_MATCH, AuthMetrics.Outcome.ERROR, start);
+            throw ex;
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            throw new HashingCapacityExceededException(
+                    "El servidor esta ocupado, intente nuevamente en unos segundos.", retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hash de contraseña interrumpido.", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error al procesar la contraseña.", ex.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        threadPool.shutdown();
+    }
+}
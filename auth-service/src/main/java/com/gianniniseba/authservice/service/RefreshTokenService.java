@@ -0,0 +1,123 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.RefreshTokenRow;
+import com.gianniniseba.authservice.entity.RefreshToken;
+import com.gianniniseba.authservice.entity.RoleName;
+import com.gianniniseba.authservice.exception.InvalidCredentialsException;
+import com.gianniniseba.authservice.repository.RefreshTokenRepository;
+import com.gianniniseba.authservice.repository.UserRepository;
+import com.gianniniseba.authservice.security.TokenDigests;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/*
+ * Refresh tokens rotativos: cada uso borra el token y emite uno nuevo.
+ *
+ * La validacion es un SELECT por el indice unico de token_hash (SHA-256) mas un DELETE por id; sin BCrypt.
+ * Si dos requests presentan el mismo token solo uno logra el DELETE, el otro recibe 401.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final Clock clock;
+
+    public record Rotation(String username, List<RoleName> roles, String refreshToken) {
+    }
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               @Value("${auth.refresh-token.ttl:P30D}") Duration ttl) {
+        this(refreshTokenRepository, userRepository, ttl, Clock.systemUTC());
+    }
+
+    RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+                        Duration ttl, Clock clock) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    // El usuario se asocia por referencia (solo su id): un unico INSERT
+    @Transactional
+    public String issue(Long userId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(TokenDigests.sha256(token))
+                .user(userRepository.getReferenceById(userId))
+                .expiresAt(clock.instant().plus(ttl))
+                .build());
+        return token;
+    }
+
+    // Un token vencido o de un usuario deshabilitado tambien se borra (sin rollback) y se rechaza
+    @Transactional(noRollbackFor = InvalidCredentialsException.class)
+    public Rotation rotate(String refreshToken) {
+        List<RefreshTokenRow> rows = refreshTokenRepository.findRowsByTokenHash(TokenDigests.sha256(refreshToken));
+        if (rows.isEmpty()) {
+            throw invalid();
+        }
+
+        RefreshTokenRow first = rows.get(0);
+        if (refreshTokenRepository.deleteByIdReturningCount(first.tokenId()) == 0) {
+            throw invalid();
+        }
+        if (!first.expiresAt().isAfter(clock.instant()) || !first.enabled()) {
+            throw invalid();
+        }
+
+        List<RoleName> roles = new ArrayList<>(rows.size());
+        for (RefreshTokenRow row : rows) {
+            if (row.role() != null) {
+                roles.add(row.role());
+            }
+        }
+        return new Rotation(first.username(), List.copyOf(roles), issue(first.userId()));
+    }
+
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.deleteByTokenHash(TokenDigests.sha256(refreshToken));
+    }
+
+    @Transactional
+    public void revokeAllForUser(String username) {
+        refreshTokenRepository.deleteByUsername(username);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.refresh-token.purge-interval:PT1H}",
+            initialDelayString = "${auth.refresh-token.purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(clock.instant());
+        if (deleted > 0) {
+            log.info("Se eliminaron {} refresh tokens vencidos", deleted);
+        }
+    }
+
+    private static InvalidCredentialsException invalid() {
+        return new InvalidCredentialsException("Refresh token invalido o vencido.");
+    }
+}
@@ -0,0 +1,75 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.RoleChangedEvent;
+import com.gianniniseba.authservice.entity.Role;
+import com.gianniniseba.authservice.entity.RoleName;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * RoleName -> id de Role en memoria. Se carga al iniciar (initRoles) y se mantiene al dia con los
+ * RoleChangedEvent que publica RoleChangeListener cuando un Role se crea, modifica o borra desde esta
+ * instancia, aplicados despues del commit.
+ * Con el id se asigna un rol via getReferenceById, sin consultar la tabla roles.
+ */
+@Component
+public class RoleRegistry {
+
+    private final AtomicReference<Map<RoleName, Long>> ids =
+            new AtomicReference<>(Collections.unmodifiableMap(new EnumMap<>(RoleName.class)));
+
+    public Long idOf(RoleName name) {
+        Long id = ids.get().get(name);
+        if (id == null) {
+            throw new IllegalStateException(name + " no esta configurado en la base.");
+        }
+        return id;
+    }
+
+    public void reload(Collection<Role> roles) {
+        Map<RoleName, Long> loaded = new EnumMap<>(RoleName.class);
+        roles.forEach(role -> loaded.put(role.getName(), role.getId()));
+        ids.set(Collections.unmodifiableMap(loaded));
+    }
+
+    // Sin transaccion activa (no deberia pasar con JPA) se aplica en el momento
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        Role role = Role.builder().id(event.roleId()).name(event.name()).build();
+        if (event.removed()) {
+            unregister(role);
+        } else {
+            register(role);
+        }
+    }
+
+    public void register(Role role) {
+        ids.updateAndGet(current -> {
+            Map<RoleName, Long> updated = copyWithout(current, role.getId());
+            updated.put(role.getName(), role.getId());
+            return Collections.unmodifiableMap(updated);
+        });
+    }
+
+    public void unregister(Role role) {
+        ids.updateAndGet(current -> Collections.unmodifiableMap(copyWithout(current, role.getId())));
+    }
+
+    // Un rol renombrado deja de figurar con su nombre anterior
+    private static Map<RoleName, Long> copyWithout(Map<RoleName, Long> current, Long id) {
+        Map<RoleName, Long> copy = new EnumMap<>(RoleName.class);
+        current.forEach((name, roleId) -> {
+            if (!roleId.equals(id)) {
+                copy.put(name, roleId);
+            }
+        });
+        return copy;
+    }
+}
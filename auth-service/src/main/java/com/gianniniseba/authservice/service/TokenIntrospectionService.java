@@ -0,0 +1,115 @@
+package com.gianniniseba.authservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.gianniniseba.authservice.dto.IntrospectionResponse;
+import com.gianniniseba.authservice.security.JwtAuthoritiesConverter;
+import com.gianniniseba.authservice.security.TokenDigests;
+import com.gianniniseba.authservice.security.TokenRevocationList;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/*
+ * Introspeccion (RFC 7662) de los access tokens emitidos por OAuth2TokenService, para servicios que no validan JWT.
+ *
+ * El resultado se cachea por SHA-256 del token: los activos hasta su "exp", los invalidos durante inactive-ttl.
+ * Con varios pedidos simultaneos del mismo token se decodifica una sola vez (Cache.get con loader).
+ * La revocacion se consulta en cada llamada (en memoria), asi un logout posterior al cacheo se respeta.
+ */
+@Service
+public class TokenIntrospectionService {
+
+    private record Introspection(Jwt jwt, IntrospectionResponse response) {
+    }
+
+    private static final Introspection INACTIVE = new Introspection(null, IntrospectionResponse.INACTIVE);
+
+    private final JwtDecoder jwtDecoder;
+    private final TokenRevocationList tokenRevocationList;
+    private final JwtAuthoritiesConverter authoritiesConverter = new JwtAuthoritiesConverter();
+    private final Clock clock;
+    private final Cache<String, Introspection> cache;
+
+    @Autowired
+    public TokenIntrospectionService(JwtDecoder jwtDecoder,
+                                     TokenRevocationList tokenRevocationList,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${auth.introspection.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${auth.introspection.cache.inactive-ttl:PT1M}") Duration inactiveTtl) {
+        this(jwtDecoder, tokenRevocationList, maximumSize, inactiveTtl, Clock.systemUTC());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "token.introspection");
+    }
+
+    TokenIntrospectionService(JwtDecoder jwtDecoder, TokenRevocationList tokenRevocationList,
+                              long maximumSize, Duration inactiveTtl, Clock clock) {
+        this.jwtDecoder = jwtDecoder;
+        this.tokenRevocationList = tokenRevocationList;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String key, Introspection introspection) -> introspection.jwt() == null
+                        ? inactiveTtl
+                        : positiveOrZero(Duration.between(clock.instant(), introspection.jwt().getExpiresAt()))))
+                .recordStats()
+                .build();
+    }
+
+    public IntrospectionResponse introspect(String token) {
+        if (token == null || token.isBlank()) {
+            return IntrospectionResponse.INACTIVE;
+        }
+        Introspection introspection = cache.get(TokenDigests.sha256(token), key -> decode(token));
+        Jwt jwt = introspection.jwt();
+        if (jwt == null || !jwt.getExpiresAt().isAfter(clock.instant()) || tokenRevocationList.isRevoked(jwt)) {
+            return IntrospectionResponse.INACTIVE;
+        }
+        return introspection.response();
+    }
+
+    public List<IntrospectionResponse> introspectAll(List<String> tokens) {
+        return tokens.stream().map(this::introspect).toList();
+    }
+
+    private Introspection decode(String token) {
+        Jwt jwt;
+        try {
+            jwt = jwtDecoder.decode(token);
+        } catch (JwtException ex) {
+            return INACTIVE;
+        }
+        if (jwt.getExpiresAt() == null) {
+            return INACTIVE;
+        }
+        return new Introspection(jwt, IntrospectionResponse.builder()
+                .active(true)
+                .sub(jwt.getSubject())
+                .scope(jwt.getClaimAsString("scope"))
+                .authorities(authoritiesConverter.convert(jwt).stream().map(GrantedAuthority::getAuthority).toList())
+                .iss(jwt.getIssuer() != null ? jwt.getIssuer().toString() : null)
+                .jti(jwt.getId())
+                .iat(epochSeconds(jwt.getIssuedAt()))
+                .exp(epochSeconds(jwt.getExpiresAt()))
+                .build());
+    }
+
+    private static Long epochSeconds(Instant instant) {
+        return instant != null ? instant.getEpochSecond() : null;
+    }
+
+    private static Duration positiveOrZero(Duration duration) {
+        return duration.isNegative() ? Duration.ZERO : duration;
+    }
+}
@@ -0,0 +1,156 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.UserImportRow;
+import com.gianniniseba.authservice.entity.RoleName;
+import com.gianniniseba.authservice.exception.InvalidImportException;
+import org.springframework.http.MediaType;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * Lee el cuerpo de /admin/users/import linea por linea, sin cargar el archivo en memoria.
+ *
+ * NDJSON: un objeto por linea {"username", "email", "password" | "passwordHash", "roles": [...]}.
+ * CSV: primera linea con encabezados username,email,password|password_hash[,roles]; roles separados por espacio.
+ * Campos CSV entre comillas dobles admiten comas y "" como comilla escapada.
+ */
+public class UserImportReader {
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format from(MediaType contentType) {
+            if (contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+                return CSV;
+            }
+            return NDJSON;
+        }
+    }
+
+    // Una fila leida: row != null, o error con el motivo por el que no se pudo interpretar
+    public record Entry(long line, UserImportRow row, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> csvColumns;
+    private long lineNumber;
+
+    public UserImportReader(InputStream inputStream, Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    // null al terminar el archivo
+    public Entry next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && csvColumns == null) {
+                readCsvHeader(line);
+                continue;
+            }
+            try {
+                UserImportRow row = format == Format.CSV ? parseCsv(line) : objectMapper.readValue(line, UserImportRow.class);
+                return new Entry(lineNumber, row, null);
+            } catch (JacksonException ex) {
+                return new Entry(lineNumber, null, "JSON invalido: " + ex.getOriginalMessage());
+            } catch (IllegalArgumentException ex) {
+                return new Entry(lineNumber, null, ex.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void readCsvHeader(String line) {
+        csvColumns = new HashMap<>();
+        List<String> headers = splitCsv(line);
+        for (int i = 0; i < headers.size(); i++) {
+            csvColumns.put(headers.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!csvColumns.containsKey("username") || !csvColumns.containsKey("email")
+                || (!csvColumns.containsKey("password") && !csvColumns.containsKey("password_hash"))) {
+            throw new InvalidImportException("El CSV debe tener encabezados username,email,password|password_hash[,roles]");
+        }
+    }
+
+    private UserImportRow parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        String roles = column(fields, "roles");
+        return UserImportRow.builder()
+                .username(column(fields, "username"))
+                .email(column(fields, "email"))
+                .password(column(fields, "password"))
+                .passwordHash(column(fields, "password_hash"))
+                .roles(roles == null ? null : parseRoles(roles))
+                .build();
+    }
+
+    private String column(List<String> fields, String name) {
+        Integer index = csvColumns.get(name);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static List<RoleName> parseRoles(String roles) {
+        List<RoleName> parsed = new ArrayList<>();
+        for (String role : roles.trim().split("\\s+")) {
+            try {
+                parsed.add(RoleName.valueOf(role));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Rol desconocido: " + role + " (validos: " + Arrays.toString(RoleName.values()) + ")");
+            }
+        }
+        return parsed;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
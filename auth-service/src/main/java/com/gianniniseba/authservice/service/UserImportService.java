@@ -0,0 +1,268 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.UserImportError;
+import com.gianniniseba.authservice.dto.UserImportResult;
+import com.gianniniseba.authservice.dto.UserImportRow;
+import com.gianniniseba.authservice.entity.RoleName;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/*
+ * Alta masiva de usuarios para migraciones (/admin/users/import).
+ *
+ * El archivo se procesa por bloques de batch-size filas: se validan, las contraseñas en texto plano se hashean
+ * en paralelo (pool propio, para no competir con login/registro) y el bloque se inserta con dos batch JDBC
+ * (users y user_roles) en una transaccion. En memoria solo vive el bloque actual y, como mucho,
+ * max-reported-errors errores.
+ *
+ * Un username o email existente no corta el import: ON CONFLICT DO NOTHING y la fila se reporta como error.
+ * Que filas se insertaron no se deduce de los conteos del batch (con reWriteBatchedInserts pgjdbc devuelve
+ * SUCCESS_NO_INFO tambien para las omitidas): se vuelven a leer las del bloque con el created_at y el hash
+ * propios, y los roles se asignan por esos ids. Asi una fila que repite un usuario existente nunca le
+ * agrega roles.
+ */
+@Service
+public class UserImportService {
+
+    private static final String INSERT_USER =
+            "insert into users (username, email, password, enabled, created_at, updated_at) "
+                    + "values (?, ?, ?, true, ?, ?) on conflict do nothing";
+    private static final String SELECT_INSERTED =
+            "select id, username, email, password from users where created_at = ? and lower(username) in (%s)";
+    private static final String INSERT_USER_ROLE =
+            "insert into user_roles (user_id, role_id) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final RoleRegistry roleRegistry;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService hashingExecutor;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public UserImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             PasswordEncoder passwordEncoder,
+                             RoleRegistry roleRegistry,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             @Value("${auth.import.batch-size:500}") int batchSize,
+                             @Value("${auth.import.hashing-threads:0}") int hashingThreads,
+                             @Value("${auth.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.roleRegistry = roleRegistry;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+
+        // Por defecto la mitad de los nucleos: el resto queda para login/registro
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("user-import-hashing-");
+        threadFactory.setDaemon(true);
+        this.hashingExecutor = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    public UserImportResult importUsers(InputStream body, UserImportReader.Format format) throws IOException {
+        UserImportReader reader = new UserImportReader(body, format, objectMapper);
+        Report report = new Report(maxReportedErrors);
+        List<PendingUser> chunk = new ArrayList<>(batchSize);
+        Set<String> chunkKeys = new HashSet<>();
+
+        UserImportReader.Entry entry;
+        while ((entry = reader.next()) != null) {
+            report.processed++;
+            PendingUser pending = validate(entry, report);
+            if (pending == null) {
+                continue;
+            }
+            // Repetidos dentro del mismo bloque (sin distinguir mayusculas, como los indices unicos);
+            // contra la base (y otros bloques) decide ON CONFLICT
+            if (!chunkKeys.add("u:" + lower(pending.row.getUsername())) | !chunkKeys.add("e:" + lower(pending.row.getEmail()))) {
+                report.error(entry.line(), pending.row.getUsername(), "Username o email repetido en el archivo.");
+                continue;
+            }
+            chunk.add(pending);
+            if (chunk.size() == batchSize) {
+                writeChunk(chunk, report);
+                chunk.clear();
+                chunkKeys.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, report);
+        }
+
+        // Los errores de base de un bloque se registran despues de los de lectura de filas posteriores
+        report.errors.sort(Comparator.comparingLong(UserImportError::getLine));
+
+        return UserImportResult.builder()
+                .processed(report.processed)
+                .imported(report.imported)
+                .failed(report.failed)
+                .errors(report.errors)
+                .errorsTruncated(report.truncated)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdownNow();
+    }
+
+    private PendingUser validate(UserImportReader.Entry entry, Report report) {
+        if (entry.error() != null) {
+            report.error(entry.line(), null, entry.error());
+            return null;
+        }
+
+        UserImportRow row = entry.row();
+        Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            report.error(entry.line(), row.getUsername(), message);
+            return null;
+        }
+        if ((row.getPassword() == null) == (row.getPasswordHash() == null)) {
+            report.error(entry.line(), row.getUsername(), "Debe indicar password o passwordHash (solo uno).");
+            return null;
+        }
+
+        List<RoleName> roles = row.getRoles() == null || row.getRoles().isEmpty()
+                ? List.of(RoleName.ROLE_USER)
+                : row.getRoles();
+        return new PendingUser(entry.line(), row, roles);
+    }
+
+    private void writeChunk(List<PendingUser> chunk, Report report) {
+        // Hash en paralelo; el bloque limita cuantas tareas hay en cola
+        List<CompletableFuture<String>> hashes = new ArrayList<>(chunk.size());
+        for (PendingUser pending : chunk) {
+            String password = pending.row.getPassword();
+            hashes.add(password == null
+                    ? CompletableFuture.completedFuture(pending.row.getPasswordHash())
+                    : CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), hashingExecutor));
+        }
+
+        // Marca las filas de este bloque; micros para que coincida con timestamp(6) al releerlas
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        List<Object[]> userArgs = new ArrayList<>(chunk.size());
+        List<String> passwords = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            UserImportRow row = chunk.get(i).row;
+            String password = hashes.get(i).join();
+            passwords.add(password);
+            userArgs.add(new Object[]{row.getUsername(), row.getEmail(), password, now, now});
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER, userArgs);
+            Map<String, InsertedUser> inserted = findInserted(chunk, now);
+
+            List<Object[]> roleArgs = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                PendingUser pending = chunk.get(i);
+                InsertedUser user = inserted.get(lower(pending.row.getUsername()));
+                boolean ours = user != null
+                        && user.email().equalsIgnoreCase(pending.row.getEmail())
+                        && user.password().equals(passwords.get(i));
+                if (!ours) {
+                    report.error(pending.line, pending.row.getUsername(), "El nombre de usuario o email ya se encuentra en uso.");
+                    continue;
+                }
+                report.imported++;
+                for (RoleName role : pending.roles) {
+                    roleArgs.add(new Object[]{user.id(), roleRegistry.idOf(role)});
+                }
+            }
+            if (!roleArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_USER_ROLE, roleArgs);
+            }
+        });
+    }
+
+    // Filas del bloque que efectivamente se insertaron, por lower(username)
+    private Map<String, InsertedUser> findInserted(List<PendingUser> chunk, Timestamp createdAt) {
+        Object[] args = new Object[chunk.size() + 1];
+        args[0] = createdAt;
+        for (int i = 0; i < chunk.size(); i++) {
+            args[i + 1] = lower(chunk.get(i).row.getUsername());
+        }
+        String sql = String.format(SELECT_INSERTED, String.join(", ", Collections.nCopies(chunk.size(), "?")));
+
+        Map<String, InsertedUser> inserted = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            InsertedUser user = new InsertedUser(rs.getLong("id"), rs.getString("email"), rs.getString("password"));
+            inserted.put(lower(rs.getString("username")), user);
+        }, args);
+        return inserted;
+    }
+
+    private static String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private record InsertedUser(long id, String email, String password) {
+    }
+
+    private record PendingUser(long line, UserImportRow row, List<RoleName> roles) {
+    }
+
+    private static final class Report {
+
+        private final int maxErrors;
+        private final List<UserImportError> errors = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private long failed;
+        private boolean truncated;
+
+        private Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void error(long line, String username, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new UserImportError(line, username, message));
+            } else {
+                truncated = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.UserProfile;
+import com.gianniniseba.authservice.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/*
+ * Cache de id/email por username para /users/me.
+ *
+ * Varios pedidos simultaneos del mismo usuario sin cache esperan una unica carga: el primero registra
+ * un future en la cache y consulta la base en su propio hilo, el resto espera ese future
+ * (sin locks tomados durante la consulta). Un usuario inexistente no queda en cache.
+ *
+ * UserChangeListener invalida la entrada al modificar o borrar el usuario; expire-after-write cubre
+ * los cambios hechos desde otros nodos.
+ */
+@Component
+public class UserProfileCache {
+
+    private final UserRepository userRepository;
+    private final AsyncCache<String, UserProfile> cache;
+
+    public UserProfileCache(UserRepository userRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${auth.users.profile-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${auth.users.profile-cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.profile");
+    }
+
+    public UserProfile get(String username) {
+        CompletableFuture<UserProfile> future = cache.getIfPresent(username);
+        if (future == null) {
+            CompletableFuture<UserProfile> loading = new CompletableFuture<>();
+            future = cache.asMap().putIfAbsent(username, loading);
+            if (future == null) {
+                future = loading;
+                load(username, loading);
+            }
+        }
+        return join(future);
+    }
+
+    public void invalidate(String username) {
+        cache.synchronous().invalidate(username);
+    }
+
+    private void load(String username, CompletableFuture<UserProfile> loading) {
+        try {
+            // Si completa con null, Caffeine descarta la entrada
+            loading.complete(userRepository.findProfileByUsername(username).orElse(null));
+        } catch (RuntimeException ex) {
+            loading.completeExceptionally(ex);
+        }
+    }
+
+    private static UserProfile join(CompletableFuture<UserProfile> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el perfil", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
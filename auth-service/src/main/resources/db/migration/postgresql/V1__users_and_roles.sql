@@ -0,0 +1,39 @@
+-- Usuarios y roles. Los nombres de usuario y los emails son unicos sin distinguir mayusculas:
+-- los indices unicos son sobre lower(...) y las consultas comparan lower(columna) = lower(:valor).
+-- Todo es "if not exists" para poder aplicarse sobre una base creada antes por ddl-auto=update
+-- (spring.flyway.baseline-on-migrate con baseline-version=0).
+
+create table if not exists roles (
+    id bigint generated by default as identity,
+    name varchar(50) not null check (name in ('ROLE_ADMIN', 'ROLE_USER')),
+    primary key (id)
+);
+
+-- RoleRegistry carga id + name: index-only scan
+create unique index if not exists uk_roles_name on roles (name) include (id);
+
+create table if not exists users (
+    id bigint generated by default as identity,
+    username varchar(50) not null,
+    email varchar(100) not null,
+    password varchar(255) not null,
+    enabled boolean not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    primary key (id)
+);
+
+-- Login (id, username, password, enabled) y /users/me (id, email) se resuelven solo con el indice,
+-- sin visitar la tabla (index-only scan mientras el visibility map este al dia)
+create unique index if not exists uk_users_username_lower on users (lower(username))
+    include (id, username, email, password, enabled);
+create unique index if not exists uk_users_email_lower on users (lower(email));
+
+create table if not exists user_roles (
+    user_id bigint not null references users (id),
+    role_id bigint not null references roles (id),
+    primary key (user_id, role_id)
+);
+
+-- La PK (user_id, role_id) cubre el join del login; este cubre la busqueda por rol
+create index if not exists idx_user_roles_role_id on user_roles (role_id) include (user_id);
@@ -0,0 +1,35 @@
+-- Refresh tokens de un solo uso (RefreshTokenService) y revocacion de access tokens (TokenRevocationList)
+
+create table if not exists refresh_tokens (
+    id bigint generated by default as identity,
+    token_hash varchar(43) not null,
+    user_id bigint not null references users (id),
+    expires_at timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+-- rotate() lee id, expires_at y user_id por token_hash: index-only scan
+create unique index if not exists uk_refresh_tokens_token_hash on refresh_tokens (token_hash)
+    include (id, expires_at, user_id);
+create index if not exists idx_refresh_tokens_expires_at on refresh_tokens (expires_at);
+create index if not exists idx_refresh_tokens_user_id on refresh_tokens (user_id);
+
+create table if not exists revoked_tokens (
+    jti varchar(36) not null,
+    expires_at timestamp(6) with time zone not null,
+    revoked_at timestamp(6) with time zone not null,
+    primary key (jti)
+);
+
+create index if not exists idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
+create index if not exists idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
+
+create table if not exists user_revocations (
+    username varchar(50) not null,
+    revoked_before timestamp(6) with time zone not null,
+    revoked_at timestamp(6) with time zone not null,
+    primary key (username)
+);
+
+create index if not exists idx_user_revocations_revoked_at on user_revocations (revoked_at);
@@ -0,0 +1,79 @@
+-- Tablas de Spring Authorization Server (JdbcRegisteredClientRepository, JdbcOAuth2AuthorizationService,
+-- JdbcOAuth2AuthorizationConsentService), adaptadas a PostgreSQL: blob -> text, timestamp -> timestamptz.
+-- "if not exists" para bases donde estas tablas ya las habia creado spring.sql.init.
+
+create table if not exists oauth2_registered_client (
+    id varchar(100) not null,
+    client_id varchar(100) not null,
+    client_id_issued_at timestamp with time zone default current_timestamp not null,
+    client_secret varchar(200) default null,
+    client_secret_expires_at timestamp with time zone default null,
+    client_name varchar(200) not null,
+    client_authentication_methods varchar(1000) not null,
+    authorization_grant_types varchar(1000) not null,
+    redirect_uris varchar(1000) default null,
+    post_logout_redirect_uris varchar(1000) default null,
+    scopes varchar(1000) not null,
+    client_settings varchar(2000) not null,
+    token_settings varchar(2000) not null,
+    primary key (id)
+);
+
+create unique index if not exists uk_oauth2_registered_client_client_id on oauth2_registered_client (client_id);
+
+create table if not exists oauth2_authorization (
+    id varchar(100) not null,
+    registered_client_id varchar(100) not null,
+    principal_name varchar(200) not null,
+    authorization_grant_type varchar(100) not null,
+    authorized_scopes varchar(1000) default null,
+    attributes text default null,
+    state varchar(500) default null,
+    authorization_code_value text default null,
+    authorization_code_issued_at timestamp with time zone default null,
+    authorization_code_expires_at timestamp with time zone default null,
+    authorization_code_metadata text default null,
+    access_token_value text default null,
+    access_token_issued_at timestamp with time zone default null,
+    access_token_expires_at timestamp with time zone default null,
+    access_token_metadata text default null,
+    access_token_type varchar(100) default null,
+    access_token_scopes varchar(1000) default null,
+    oidc_id_token_value text default null,
+    oidc_id_token_issued_at timestamp with time zone default null,
+    oidc_id_token_expires_at timestamp with time zone default null,
+    oidc_id_token_metadata text default null,
+    refresh_token_value text default null,
+    refresh_token_issued_at timestamp with time zone default null,
+    refresh_token_expires_at timestamp with time zone default null,
+    refresh_token_metadata text default null,
+    user_code_value text default null,
+    user_code_issued_at timestamp with time zone default null,
+    user_code_expires_at timestamp with time zone default null,
+    user_code_metadata text default null,
+    device_code_value text default null,
+    device_code_issued_at timestamp with time zone default null,
+    device_code_expires_at timestamp with time zone default null,
+    device_code_metadata text default null,
+    primary key (id)
+);
+
+-- findByToken busca por igualdad en cada columna de valor. Indices hash: solo igualdad,
+-- sin el limite de tamano de entrada de un btree (un access token JWT puede superar los 2 KB)
+create index if not exists idx_oauth2_authorization_state on oauth2_authorization using hash (state);
+create index if not exists idx_oauth2_authorization_code on oauth2_authorization using hash (authorization_code_value);
+create index if not exists idx_oauth2_authorization_access_token on oauth2_authorization using hash (access_token_value);
+create index if not exists idx_oauth2_authorization_refresh_token on oauth2_authorization using hash (refresh_token_value);
+create index if not exists idx_oauth2_authorization_id_token on oauth2_authorization using hash (oidc_id_token_value);
+
+-- Para OAuth2AuthorizationSweeper
+create index if not exists idx_oauth2_authorization_refresh_expires on oauth2_authorization (refresh_token_expires_at);
+create index if not exists idx_oauth2_authorization_access_expires on oauth2_authorization (access_token_expires_at);
+create index if not exists idx_oauth2_authorization_code_expires on oauth2_authorization (authorization_code_expires_at);
+
+create table if not exists oauth2_authorization_consent (
+    registered_client_id varchar(100) not null,
+    principal_name varchar(200) not null,
+    authorities varchar(1000) not null,
+    primary key (registered_client_id, principal_name)
+);
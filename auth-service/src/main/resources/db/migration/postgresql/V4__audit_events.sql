@@ -0,0 +1,15 @@
+-- Eventos de auditoria (AuditLog): solo inserts en lote, en orden de occurred_at.
+-- BRIN sobre occurred_at: minimo costo por insert y suficiente para consultar por rango de fechas.
+
+create table audit_events (
+    id bigint generated by default as identity,
+    event_type varchar(20) not null,
+    username varchar(100),
+    client_ip varchar(45),
+    detail varchar(200),
+    occurred_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_audit_events_occurred_at on audit_events using brin (occurred_at);
+create index idx_audit_events_username on audit_events (username);
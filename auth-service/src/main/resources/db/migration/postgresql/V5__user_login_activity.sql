@@ -0,0 +1,6 @@
+-- Ultimo login y cantidad de logins (LoginActivityTracker, write-behind).
+-- Default constante: PostgreSQL agrega las columnas sin reescribir la tabla.
+
+alter table users
+    add column last_login_at timestamp(6) with time zone,
+    add column login_count bigint not null default 0;
@@ -0,0 +1,23 @@
+-- Una base creada antes por ddl-auto=update conserva las restricciones unique que generaba Hibernate
+-- (@Column(unique = true)) sobre users.username y users.email, con nombres generados (uk..., users_username_key).
+-- V1 no las toca ("if not exists"); son redundantes con los indices sobre lower(...) y un duplicado con el mismo
+-- case se informaria con su nombre en lugar de uk_users_username_lower / uk_users_email_lower.
+-- En una base creada por las migraciones no hay ninguna y esto no hace nada (por eso no tiene equivalente en H2).
+
+do $$
+declare
+    redundant text;
+begin
+    for redundant in
+        select c.conname
+        from pg_constraint c
+        join pg_attribute a on a.attrelid = c.conrelid and a.attnum = c.conkey[1]
+        where c.conrelid = 'users'::regclass
+          and c.contype = 'u'
+          and cardinality(c.conkey) = 1
+          and a.attname in ('username', 'email')
+    loop
+        execute format('alter table users drop constraint %I', redundant);
+    end loop;
+end
+$$;
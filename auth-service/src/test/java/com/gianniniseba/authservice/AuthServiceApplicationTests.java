@@ -2,8 +2,11 @@ package com.gianniniseba.authservice;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
+// Perfil embedded: H2 con las migraciones de db/migration/h2, sin PostgreSQL
 @SpringBootTest
+@ActiveProfiles("embedded")
 class AuthServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,65 @@
+package com.gianniniseba.authservice.benchmark;
+
+import com.gianniniseba.authservice.config.OAuth2ResourceServerConfig;
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Conversion Jwt -> Authentication del resource server (claim "authorities" como String o List).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthoritiesConverterBenchmark {
+
+    @Param({"string", "list"})
+    private String claimForm;
+
+    private JwtAuthenticationConverter converter;
+    private Jwt jwt;
+
+    @Setup
+    public void setup() {
+        converter = OAuth2ResourceServerConfig.jwtAuthenticationConverter(new AuthMetrics(new SimpleMeterRegistry()));
+
+        Object authorities = "string".equals(claimForm)
+                ? "ROLE_USER ROLE_ADMIN"
+                : List.of("ROLE_USER", "ROLE_ADMIN");
+
+        Instant now = Instant.now();
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("benchmark-user")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .claim("authorities", authorities)
+                .claim("roles", authorities)
+                .build();
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return converter.convert(jwt);
+    }
+}
@@ -0,0 +1,29 @@
+package com.gianniniseba.authservice.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * Ejecuta los benchmarks de este paquete con el GCProfiler activado, de modo que cada resultado
+ * reporte ops/s y gc.alloc.rate.norm (bytes asignados por operacion).
+ * Uso: mvn -Pbenchmark -DskipTests test -Dbenchmark.include=<regex>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 && !args[0].isBlank() ? args[0] : ".*";
+
+        Options options = new OptionsBuilder()
+                .include(BenchmarkRunner.class.getPackageName() + ".*" + include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+
+        new Runner(options).run();
+    }
+}
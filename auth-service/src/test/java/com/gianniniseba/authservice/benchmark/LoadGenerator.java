@@ -0,0 +1,407 @@
+package com.gianniniseba.authservice.benchmark;
+
+import com.gianniniseba.authservice.AuthServiceApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Generador de carga abierta: levanta la aplicacion (perfil embedded, H2) y manda requests a tasa fija
+ * (--rate por segundo) con la mezcla pedida de /auth/register, /auth/login, /users/me y /admin/ping.
+ *
+ * Cada request tiene una hora de inicio planificada (inicio + n / rate) y su latencia se mide desde esa hora,
+ * no desde que se envio: si el servidor se atrasa, la espera acumulada cuenta (correccion de coordinated omission).
+ * Tambien se informa el p99 de servicio (desde el envio) para comparar. Histogramas con HdrHistogram.
+ *
+ * Los requests fallidos tambien entran en los histogramas (un timeout lento cuenta para el p99) y ademas como errores.
+ * Termina con codigo 1 si no se cumple algun presupuesto: --min-throughput (req/s exitosas completadas dentro de la
+ * ventana), --p99 por operacion o --max-error-rate.
+ *
+ * Con --modes=platform,virtual levanta la aplicacion una vez por modo (spring.threads.virtual.enabled, lo mismo que
+ * activa el perfil "virtual") y corre la misma carga en cada una; los presupuestos se evaluan por modo.
+ * Para ver pinning de virtual threads agregar -Djdk.tracePinnedThreads=short a la JVM.
+ *
+ * Uso: mvn -Pload -DskipTests test [-Dload-test.args="--rate=200 --mix=login:10,me:90"]
+ * Opciones: --rate=100 --duration=PT30S --warmup=PT10S --mix=register:2,login:8,me:80,admin:10 --users=32
+ *           --min-throughput=95 --p99=login:PT1S,me:PT0.1S --max-error-rate=0.01 --histograms=dir
+ *           --profiles=embedded (vacio = base de application.properties) --seed=42 --modes=platform,virtual
+ * El resto de los argumentos se pasan a la aplicacion.
+ */
+public class LoadGenerator {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String PASSWORD = "secret123";
+
+    enum Operation {
+        REGISTER, LOGIN, ME, ADMIN;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        static Operation of(String label) {
+            return valueOf(label.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        double rate = 100;
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(10);
+        Map<Operation, Integer> mix = parseMix("register:2,login:8,me:80,admin:10");
+        int users = 32;
+        double minThroughput = 0;
+        Map<Operation, Duration> p99Budgets = new EnumMap<>(Operation.class);
+        double maxErrorRate = 0.01;
+        Path histograms = null;
+        String profiles = "embedded";
+        long seed = 42;
+        List<String> modes = List.of();
+        List<String> appArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            if (arg.startsWith("--rate=")) {
+                rate = Double.parseDouble(value(arg));
+            } else if (arg.startsWith("--duration=")) {
+                duration = Duration.parse(value(arg));
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Duration.parse(value(arg));
+            } else if (arg.startsWith("--mix=")) {
+                mix = parseMix(value(arg));
+            } else if (arg.startsWith("--users=")) {
+                users = Integer.parseInt(value(arg));
+            } else if (arg.startsWith("--min-throughput=")) {
+                minThroughput = Double.parseDouble(value(arg));
+            } else if (arg.startsWith("--p99=")) {
+                for (String budget : value(arg).split(",")) {
+                    String[] parts = budget.split(":", 2);
+                    p99Budgets.put(Operation.of(parts[0]), Duration.parse(parts[1].trim()));
+                }
+            } else if (arg.startsWith("--max-error-rate=")) {
+                maxErrorRate = Double.parseDouble(value(arg));
+            } else if (arg.startsWith("--histograms=")) {
+                histograms = Path.of(value(arg));
+            } else if (arg.startsWith("--profiles=")) {
+                profiles = value(arg);
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(value(arg));
+            } else if (arg.startsWith("--modes=")) {
+                modes = Arrays.asList(value(arg).split(","));
+            } else if (!arg.isBlank()) {
+                appArgs.add(arg);
+            }
+        }
+
+        // Sin --modes una sola corrida, con los threads que diga la configuracion
+        Map<String, Map<Operation, Stats>> runs = new LinkedHashMap<>();
+        for (String mode : modes.isEmpty() ? List.of("") : modes) {
+            // Como argumentos (no defaults) para pisar application.properties; el rate limit cortaria los logins
+            List<String> runArgs = new ArrayList<>(List.of("--server.port=0", "--auth.login.rate-limit.enabled=false"));
+            if (!mode.isEmpty()) {
+                runArgs.add("--spring.threads.virtual.enabled=" + "virtual".equals(mode));
+            }
+            runArgs.addAll(appArgs);
+            SpringApplicationBuilder builder = new SpringApplicationBuilder(AuthServiceApplication.class);
+            if (!profiles.isBlank()) {
+                builder.profiles(profiles.split(","));
+            }
+            try (ConfigurableApplicationContext context = builder.run(runArgs.toArray(String[]::new))) {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                Target target = new Target(URI.create("http://localhost:" + port), users, context.getBean(JdbcTemplate.class));
+                runs.put(mode, new OpenLoad(target, rate, mix, seed).run(warmup, duration));
+            }
+        }
+
+        boolean passed = true;
+        for (Map.Entry<String, Map<Operation, Stats>> run : runs.entrySet()) {
+            String mode = run.getKey();
+            passed &= report(mode, run.getValue(), duration, minThroughput, p99Budgets, maxErrorRate);
+            if (histograms != null) {
+                writeHistograms(run.getValue(), mode.isEmpty() ? histograms : histograms.resolve(mode));
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static String value(String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split(":", 2);
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.of(parts[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene operaciones: " + spec);
+        }
+        return mix;
+    }
+
+    private static boolean report(String mode, Map<Operation, Stats> stats, Duration duration, double minThroughput,
+                                  Map<Operation, Duration> p99Budgets, double maxErrorRate) {
+        double seconds = duration.toNanos() / 1e9;
+        long completed = 0;
+        long total = 0;
+        long errors = 0;
+
+        System.out.println();
+        if (!mode.isEmpty()) {
+            System.out.println("modo " + mode);
+        }
+        System.out.printf(Locale.ROOT, "%-9s %8s %9s %7s %9s %9s %9s %9s %9s %12s%n", "request", "count", "req/s",
+                "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "p99 serv ms");
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats stat = entry.getValue();
+            Histogram response = stat.response();
+            completed += stat.completedInWindow.sum();
+            total += response.getTotalCount();
+            errors += stat.errors.sum();
+            System.out.printf(Locale.ROOT, "%-9s %8d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                    entry.getKey().label(), response.getTotalCount(), stat.completedInWindow.sum() / seconds,
+                    stat.errors.sum(), millis(response, 50), millis(response, 90), millis(response, 99),
+                    millis(response, 99.9), response.getMaxValue() / 1000.0, millis(stat.service(), 99));
+        }
+
+        List<String> failures = new ArrayList<>();
+        double throughput = completed / seconds;
+        System.out.printf(Locale.ROOT, "%nthroughput %.1f req/s%n", throughput);
+        if (throughput < minThroughput) {
+            failures.add(String.format(Locale.ROOT, "throughput %.1f req/s < %.1f req/s", throughput, minThroughput));
+        }
+        p99Budgets.forEach((operation, budget) -> {
+            Stats stat = stats.get(operation);
+            if (stat == null) {
+                return;
+            }
+            double p99 = millis(stat.response(), 99);
+            if (p99 > budget.toNanos() / 1e6) {
+                failures.add(String.format(Locale.ROOT, "%s p99 %.2f ms > %d ms", operation.label(), p99, budget.toMillis()));
+            }
+        });
+        double errorRate = total == 0 ? 0 : (double) errors / total;
+        if (errorRate > maxErrorRate) {
+            failures.add(String.format(Locale.ROOT, "errores %.2f%% > %.2f%%", errorRate * 100, maxErrorRate * 100));
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("Presupuestos cumplidos");
+            return true;
+        }
+        failures.forEach(failure -> System.out.println("FALLA: " + failure));
+        return false;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    // Distribucion completa (en ms) por operacion, en el formato .hgrm que grafica HdrHistogram
+    private static void writeHistograms(Map<Operation, Stats> stats, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Path file = directory.resolve(entry.getKey().label() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().response().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("Histogramas en " + directory.toAbsolutePath());
+    }
+
+    private static final class OpenLoad {
+
+        private final Target target;
+        private final double intervalNanos;
+        private final Operation[] weighted;
+        private final SplittableRandom random;
+
+        private OpenLoad(Target target, double rate, Map<Operation, Integer> mix, long seed) {
+            this.target = target;
+            this.intervalNanos = 1e9 / rate;
+            this.weighted = mix.entrySet().stream()
+                    .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                    .toArray(Operation[]::new);
+            this.random = new SplittableRandom(seed);
+        }
+
+        /*
+         * El planificador no espera respuestas: cada request sale en su hora planificada en un virtual thread.
+         * Solo se registran los planificados despues del warmup.
+         */
+        private Map<Operation, Stats> run(Duration warmup, Duration duration) {
+            Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+            for (Operation operation : weighted) {
+                stats.computeIfAbsent(operation, ignored -> new Stats());
+            }
+            long start = System.nanoTime();
+            long measureStart = start + warmup.toNanos();
+            long end = measureStart + duration.toNanos();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (long n = 0; ; n++) {
+                    long intended = start + (long) (n * intervalNanos);
+                    if (intended >= end) {
+                        break;
+                    }
+                    for (long wait = intended - System.nanoTime(); wait > 0; wait = intended - System.nanoTime()) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    Operation operation = weighted[random.nextInt(weighted.length)];
+                    Stats stat = stats.get(operation);
+                    boolean measured = intended >= measureStart;
+                    executor.execute(() -> {
+                        long sent = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = target.call(operation);
+                        } catch (Exception ex) {
+                            ok = false;
+                        }
+                        if (measured) {
+                            stat.record(intended, sent, System.nanoTime(), ok, end);
+                        }
+                    });
+                }
+            }
+            return stats;
+        }
+    }
+
+    // Latencias en microsegundos; los Recorder admiten escrituras concurrentes
+    private static final class Stats {
+
+        private final Recorder responseRecorder = new Recorder(3);
+        private final Recorder serviceRecorder = new Recorder(3);
+        private final LongAdder completedInWindow = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private Histogram response;
+        private Histogram service;
+
+        private void record(long intended, long sent, long done, boolean ok, long end) {
+            responseRecorder.recordValue((done - intended) / 1000);
+            serviceRecorder.recordValue((done - sent) / 1000);
+            if (!ok) {
+                errors.increment();
+            } else if (done <= end) {
+                completedInWindow.increment();
+            }
+        }
+
+        private Histogram response() {
+            if (response == null) {
+                response = responseRecorder.getIntervalHistogram();
+            }
+            return response;
+        }
+
+        private Histogram service() {
+            if (service == null) {
+                service = serviceRecorder.getIntervalHistogram();
+            }
+            return service;
+        }
+    }
+
+    private static final class Target {
+
+        private final URI baseUri;
+        private final String prefix = "load-" + Long.toString(System.currentTimeMillis(), 36) + "-";
+        private final AtomicLong registered = new AtomicLong();
+        private final HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        private final String[] tokens;
+        private final String adminToken;
+
+        // Usuarios para login y /users/me, y uno con ROLE_ADMIN (asignado por SQL) para /admin/ping
+        private Target(URI baseUri, int users, JdbcTemplate jdbcTemplate) throws Exception {
+            this.baseUri = baseUri;
+            this.tokens = new String[users];
+            for (int i = 0; i < users; i++) {
+                register(prefix + "u" + i);
+                tokens[i] = login(prefix + "u" + i);
+            }
+            register(prefix + "admin");
+            jdbcTemplate.update("insert into user_roles (user_id, role_id) select u.id, r.id from users u, roles r "
+                    + "where u.username = ? and r.name = 'ROLE_ADMIN'", prefix + "admin");
+            this.adminToken = login(prefix + "admin");
+            if (adminToken == null || tokens[users - 1] == null) {
+                throw new IllegalStateException("No se pudieron preparar los usuarios de carga");
+            }
+        }
+
+        private boolean call(Operation operation) throws Exception {
+            int user = ThreadLocalRandom.current().nextInt(tokens.length);
+            return switch (operation) {
+                case REGISTER -> register(prefix + "r" + registered.incrementAndGet());
+                case LOGIN -> login(prefix + "u" + user) != null;
+                case ME -> get("/users/me", tokens[user]);
+                case ADMIN -> get("/admin/ping", adminToken);
+            };
+        }
+
+        private boolean register(String username) throws Exception {
+            return post("/auth/register", "{\"username\":\"" + username + "\",\"email\":\"" + username
+                    + "@load.test\",\"password\":\"" + PASSWORD + "\"}").statusCode() / 100 == 2;
+        }
+
+        private String login(String username) throws Exception {
+            HttpResponse<String> response = post("/auth/login",
+                    "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}");
+            Matcher matcher = TOKEN.matcher(response.body());
+            return response.statusCode() == 200 && matcher.find() ? matcher.group(1) : null;
+        }
+
+        private HttpResponse<String> post(String path, String json) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(10))
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+
+        private boolean get(String path, String token) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        }
+    }
+}
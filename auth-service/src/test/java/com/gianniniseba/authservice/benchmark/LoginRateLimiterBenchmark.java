@@ -0,0 +1,62 @@
+package com.gianniniseba.authservice.benchmark;
+
+import com.gianniniseba.authservice.security.LoginRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Costo de LoginRateLimiter.check con 4 hilos concurrentes: muchos usuarios distintos (caso normal)
+ * y un mismo usuario bajo ataque (la mayoria de los intentos se rechaza).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LoginRateLimiterBenchmark {
+
+    private static final String[] USERNAMES = new String[50_000];
+    private static final String[] IPS = new String[256];
+
+    static {
+        for (int i = 0; i < USERNAMES.length; i++) {
+            USERNAMES[i] = "user" + i;
+        }
+        for (int i = 0; i < IPS.length; i++) {
+            IPS[i] = "10.0.0." + i;
+        }
+    }
+
+    private LoginRateLimiter limiter;
+
+    @Setup
+    public void setup() {
+        limiter = new LoginRateLimiter(new SimpleMeterRegistry(), true, 100_000, 5, 5, 50, 60);
+    }
+
+    @Benchmark
+    public long distinctUsers() {
+        int user = ThreadLocalRandom.current().nextInt(50_000);
+        return limiter.tryAcquire(USERNAMES[user], IPS[user & 0xff]);
+    }
+
+    @Benchmark
+    public long sameUserUnderAttack() {
+        return limiter.tryAcquire("victim", IPS[ThreadLocalRandom.current().nextInt(256)]);
+    }
+}
@@ -0,0 +1,125 @@
+package com.gianniniseba.authservice.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Tiempo hasta estar listo: arranca el jar del perfil fast-start como proceso aparte y mide cuanto tarda
+ * /actuator/health en responder 200 (incluye el arranque de la JVM). Tambien muestra el
+ * "Started ... in X seconds" que reporta Spring.
+ *
+ * Modos: jvm (java -jar) y aot-cds (-Dspring.aot.enabled=true con el archivo CDS application.jsa).
+ * Necesita la base configurada (o --spring.datasource.* como argumentos para la aplicacion).
+ * Uso: mvn -Pfast-start,startup-benchmark -DskipTests verify [-Dstartup.args="--runs=5"]
+ */
+public class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started AuthServiceApplication in ([0-9.]+) seconds");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args[0]).toAbsolutePath();
+        int runs = 3;
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : Arrays.asList(args).subList(1, args.length)) {
+            if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring("--runs=".length()));
+            } else if (!arg.isBlank()) {
+                appArgs.add(arg);
+            }
+        }
+
+        Path archive = jar.resolveSibling("application.jsa");
+        List<String> report = new ArrayList<>();
+        report.add(measure("jvm", List.of(), jar, appArgs, runs));
+        if (Files.exists(archive)) {
+            report.add(measure("aot-cds", List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true"),
+                    jar, appArgs, runs));
+        } else {
+            System.out.println("No existe " + archive + ": se omite el modo aot-cds (correr con -Pfast-start)");
+        }
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-8s %12s %12s %14s%n", "mode", "ready min", "ready median", "spring median");
+        report.forEach(System.out::println);
+    }
+
+    private static String measure(String mode, List<String> jvmArgs, Path jar, List<String> appArgs, int runs)
+            throws Exception {
+        long[] readyMillis = new long[runs];
+        double[] springSeconds = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            int port = freePort();
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmArgs);
+            command.add("-jar");
+            command.add(jar.toString());
+            command.add("--server.port=" + port);
+            command.addAll(appArgs);
+
+            Path log = Files.createTempFile("startup-" + mode, ".log");
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .directory(jar.getParent().toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+            try {
+                awaitHealthy(process, port, log);
+                readyMillis[i] = (System.nanoTime() - start) / 1_000_000;
+                Matcher matcher = STARTED.matcher(Files.readString(log));
+                springSeconds[i] = matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+                System.out.printf(Locale.ROOT, "%s #%d: ready en %d ms (Spring: %.3f s)%n", mode, i + 1, readyMillis[i], springSeconds[i]);
+            } finally {
+                process.destroy();
+                process.waitFor();
+                Files.deleteIfExists(log);
+            }
+        }
+
+        Arrays.sort(readyMillis);
+        Arrays.sort(springSeconds);
+        return String.format(Locale.ROOT, "%-8s %10d ms %10d ms %12.3f s", mode,
+                readyMillis[0], readyMillis[runs / 2], springSeconds[runs / 2]);
+    }
+
+    private static void awaitHealthy(Process process, int port, Path log) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("La aplicacion termino al arrancar:\n" + Files.readString(log));
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ex) {
+                // Todavia no escucha
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("La aplicacion no estuvo lista en " + TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.gianniniseba.authservice.benchmark;
+
+import com.gianniniseba.authservice.config.OAuth2AuthorizationServerConfig;
+import com.gianniniseba.authservice.entity.Role;
+import com.gianniniseba.authservice.entity.RoleName;
+import com.gianniniseba.authservice.entity.User;
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import com.gianniniseba.authservice.repository.RevokedTokenRepository;
+import com.gianniniseba.authservice.repository.UserRevocationRepository;
+import com.gianniniseba.authservice.security.SigningKeyManager;
+import com.gianniniseba.authservice.security.TokenRevocationList;
+import com.gianniniseba.authservice.service.OAuth2TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/*
+ * Emision (firma via OAuth2TokenService) y validacion del access token
+ * para cada algoritmo soportado (RS256 = RSA-2048, ES256 = P-256, Ed25519).
+ * decodeNimbus mide solo NimbusJwtDecoder.decode (comparable con las mediciones originales);
+ * decode, la cadena completa del bean (metricas + revocacion) y decodeCached, la misma con CachingJwtDecoder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBenchmark {
+
+    private static final AuthMetrics AUTH_METRICS = new AuthMetrics(new SimpleMeterRegistry());
+    private static final TokenRevocationList REVOCATIONS = new TokenRevocationList(mock(RevokedTokenRepository.class),
+            mock(UserRevocationRepository.class), new SimpleMeterRegistry(), 1000, 0.01);
+
+    @Param({"RS256", "ES256", "Ed25519"})
+    private String algorithm;
+
+    private OAuth2TokenService tokenService;
+    private JwtDecoder nimbusJwtDecoder;
+    private JwtDecoder jwtDecoder;
+    private JwtDecoder cachingJwtDecoder;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        OAuth2AuthorizationServerConfig config = new OAuth2AuthorizationServerConfig(algorithm);
+        SigningKeyManager jwkSource = SigningKeyManager.inMemory(config.signingAlgorithm());
+        tokenService = new OAuth2TokenService(config.jwtEncoder(jwkSource), config.signingAlgorithm(), AUTH_METRICS);
+        nimbusJwtDecoder = config.nimbusJwtDecoder(jwkSource);
+        jwtDecoder = config.jwtDecoder(jwkSource, false, 0, new SimpleMeterRegistry(), AUTH_METRICS, REVOCATIONS);
+        cachingJwtDecoder = config.jwtDecoder(jwkSource, true, 10_000, new SimpleMeterRegistry(), AUTH_METRICS, REVOCATIONS);
+
+        user = User.builder()
+                .username("benchmark-user")
+                .roles(Set.of(Role.builder().id(2L).name(RoleName.ROLE_USER).build()))
+                .build();
+        token = tokenService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return tokenService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public Jwt decodeNimbus() {
+        return nimbusJwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return jwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodeCached() {
+        return cachingJwtDecoder.decode(token);
+    }
+}
@@ -0,0 +1,28 @@
+package com.gianniniseba.authservice.config;
+
+import com.gianniniseba.authservice.dto.UserCredentialRow;
+import com.gianniniseba.authservice.dto.UserImportRow;
+import com.gianniniseba.authservice.entity.UserChangeListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthServiceRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void registersReflectionAndResourceHints() {
+        new AuthServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(UserCredentialRow.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(UserChangeListener.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_METHODS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(UserImportRow.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/postgresql/V1__users_and_roles.sql")).accepts(hints);
+    }
+}
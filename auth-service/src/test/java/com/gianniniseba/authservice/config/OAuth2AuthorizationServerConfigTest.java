@@ -0,0 +1,103 @@
+package com.gianniniseba.authservice.config;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Cuentas de servicio: tokens de /oauth2/token (client_credentials) con cada algoritmo configurable y lo que habilita cada scope
+// Los tests deshabilitan la exportacion de metricas por defecto: se habilita para que exista /actuator/prometheus
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.prometheus.metrics.export.enabled=true")
+@ActiveProfiles("embedded")
+class OAuth2AuthorizationServerConfigTest {
+
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"access_token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void metricsClientCanScrapePrometheusOnly() throws Exception {
+        String metricsToken = clientCredentialsToken("metrics-client", "secret", "metrics");
+        String introspectionToken = clientCredentialsToken("introspection-client", "secret", "introspect");
+
+        assertThat(get("/actuator/prometheus", metricsToken).statusCode()).isEqualTo(200);
+        assertThat(get("/actuator/metrics", metricsToken).statusCode()).isEqualTo(403);
+        assertThat(get("/actuator/prometheus", introspectionToken).statusCode()).isEqualTo(403);
+    }
+
+    @Nested
+    @TestPropertySource(properties = "auth.jwt.signing-algorithm=ES256")
+    class Es256 {
+
+        @Test
+        void clientCredentialsTokenIsSignedWithTheConfiguredAlgorithm() throws Exception {
+            assertIntrospectable("ES256");
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "auth.jwt.signing-algorithm=Ed25519")
+    class Ed25519 {
+
+        @Test
+        void clientCredentialsTokenIsSignedWithTheConfiguredAlgorithm() throws Exception {
+            assertIntrospectable("EdDSA");
+        }
+    }
+
+    private void assertIntrospectable(String algorithm) throws Exception {
+        String token = clientCredentialsToken("introspection-client", "secret", "introspect");
+
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+        assertThat(header).contains("\"alg\":\"" + algorithm + "\"");
+
+        HttpResponse<String> introspection = httpClient.send(HttpRequest.newBuilder(uri("/auth/introspect"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("token=" + token))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(introspection.statusCode()).isEqualTo(200);
+        assertThat(introspection.body()).contains("\"active\":true").contains("\"sub\":\"introspection-client\"");
+    }
+
+    private String clientCredentialsToken(String clientId, String secret, String scope) throws Exception {
+        String credentials = Base64.getEncoder().encodeToString((clientId + ":" + secret).getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri("/oauth2/token"))
+                .header("Authorization", "Basic " + credentials)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("grant_type=client_credentials&scope=" + scope))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+        Matcher matcher = ACCESS_TOKEN.matcher(response.body());
+        assertThat(matcher.find()).isTrue();
+        return matcher.group(1);
+    }
+
+    private HttpResponse<Void> get(String path, String token) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,55 @@
+package com.gianniniseba.authservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingJwtDecoderTest {
+
+    @Test
+    void repeatedTokenSkipsDelegate() {
+        AtomicInteger calls = new AtomicInteger();
+        JwtDecoder delegate = token -> {
+            calls.incrementAndGet();
+            return jwt(token, Instant.now().plusSeconds(3600));
+        };
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100);
+
+        Jwt first = decoder.decode("token-a");
+        Jwt second = decoder.decode("token-a");
+        decoder.decode("token-b");
+
+        assertThat(second).isSameAs(first);
+        assertThat(calls).hasValue(2);
+        assertThat(decoder.getCache().stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredTokenIsNotServedFromCache() {
+        AtomicInteger calls = new AtomicInteger();
+        JwtDecoder delegate = token -> {
+            calls.incrementAndGet();
+            return jwt(token, Instant.now().minusSeconds(1));
+        };
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100);
+
+        decoder.decode("token-a");
+        decoder.decode("token-a");
+
+        assertThat(calls).hasValue(2);
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("user")
+                .issuedAt(expiresAt.minusSeconds(3600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
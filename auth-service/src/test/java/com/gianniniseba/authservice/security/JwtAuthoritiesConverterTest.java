@@ -0,0 +1,77 @@
+package com.gianniniseba.authservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthoritiesConverterTest {
+
+    private final JwtAuthoritiesConverter converter = new JwtAuthoritiesConverter();
+
+    @Test
+    void parsesWhitespaceSeparatedClaim() {
+        Collection<GrantedAuthority> authorities = converter.convert(jwt(Map.of("authorities", "  ROLE_USER\tROLE_ADMIN ")));
+
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    @Test
+    void parsesListClaim() {
+        Collection<GrantedAuthority> authorities = converter.convert(jwt(Map.of("authorities", new ArrayList<>(List.of("ROLE_ADMIN", "SCOPE_x")))));
+
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN", "SCOPE_x");
+    }
+
+    @Test
+    void fallsBackToRolesClaim() {
+        Collection<GrantedAuthority> authorities = converter.convert(jwt(Map.of("roles", "ROLE_USER")));
+
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        assertThat(converter.convert(jwt(Map.of("other", "x")))).isEmpty();
+    }
+
+    @Test
+    void mapsScopesOnlyForTokensWithoutRoles() {
+        Collection<GrantedAuthority> client = converter.convert(jwt(Map.of("scope", List.of("introspect"))));
+        Collection<GrantedAuthority> user = converter.convert(jwt(Map.of("scope", "introspect", "authorities", "ROLE_USER")));
+
+        assertThat(client).extracting(GrantedAuthority::getAuthority).containsExactly("SCOPE_introspect");
+        assertThat(user).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        assertThat(converter.convert(jwt(Map.of("roles", "introspect")))).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("introspect");
+    }
+
+    @Test
+    void returnsSharedImmutableCollectionForSameClaimValue() {
+        Collection<GrantedAuthority> first = converter.convert(jwt(Map.of("authorities", "ROLE_USER")));
+        Collection<GrantedAuthority> second = converter.convert(jwt(Map.of("authorities", new String("ROLE_USER"))));
+        Collection<GrantedAuthority> fromList = converter.convert(jwt(Map.of("authorities", new ArrayList<>(List.of("ROLE_USER")))));
+        Collection<GrantedAuthority> fromListAgain = converter.convert(jwt(Map.of("authorities", List.of("ROLE_USER"))));
+
+        assertThat(second).isSameAs(first);
+        assertThat(fromListAgain).isSameAs(fromList);
+        assertThat(fromList.iterator().next()).isSameAs(first.iterator().next());
+        assertThat(first).isUnmodifiable();
+    }
+
+    private static Jwt jwt(Map<String, Object> claims) {
+        Instant now = Instant.now();
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("user")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(60))
+                .claims(c -> c.putAll(claims))
+                .build();
+    }
+}
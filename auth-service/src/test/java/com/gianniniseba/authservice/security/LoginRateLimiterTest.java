@@ -0,0 +1,60 @@
+package com.gianniniseba.authservice.security;
+
+import com.gianniniseba.authservice.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(123_456_789L);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // username: rafaga 3, 6 por minuto (1 cada 10s); ip: rafaga 10, 60 por minuto
+    private final LoginRateLimiter limiter = new LoginRateLimiter(registry, true, 1000, 3, 6, 10, 60, now::get);
+
+    @Test
+    void usernameBucketRefillsOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check("bob", "10.0.0." + i);
+        }
+
+        assertThatThrownBy(() -> limiter.check("bob", "10.0.0.9"))
+                .isInstanceOf(TooManyLoginAttemptsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(10L);
+        assertThat(registry.get("auth.login.rate_limited").tag("limit", "username").counter().count()).isEqualTo(1.0);
+
+        // Otro usuario no se ve afectado
+        assertThatCode(() -> limiter.check("alice", "10.0.0.9")).doesNotThrowAnyException();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThatCode(() -> limiter.check("bob", "10.0.0.9")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> limiter.check("bob", "10.0.0.9")).isInstanceOf(TooManyLoginAttemptsException.class);
+    }
+
+    @Test
+    void caseVariantsOfAUsernameShareOneBucket() {
+        limiter.check("bob", "10.0.0.1");
+        limiter.check("Bob", "10.0.0.2");
+        limiter.check("bOB", "10.0.0.3");
+
+        assertThatThrownBy(() -> limiter.check("BOB", "10.0.0.4")).isInstanceOf(TooManyLoginAttemptsException.class);
+    }
+
+    @Test
+    void ipBucketLimitsManyUsernamesFromOneAddress() {
+        for (int i = 0; i < 10; i++) {
+            limiter.check("user" + i, "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> limiter.check("user99", "10.0.0.1"))
+                .isInstanceOf(TooManyLoginAttemptsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(1L);
+        assertThat(registry.get("auth.login.rate_limited").tag("limit", "ip").counter().count()).isEqualTo(1.0);
+    }
+}
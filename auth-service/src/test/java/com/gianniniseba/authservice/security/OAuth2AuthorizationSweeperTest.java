@@ -0,0 +1,61 @@
+package com.gianniniseba.authservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("embedded")
+class OAuth2AuthorizationSweeperTest {
+
+    private static final OffsetDateTime PAST = OffsetDateTime.now(ZoneOffset.UTC).minusHours(1);
+    private static final OffsetDateTime FUTURE = OffsetDateTime.now(ZoneOffset.UTC).plusHours(1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String prefix = "sweep-" + UUID.randomUUID() + "-";
+
+    @Test
+    void deletesOnlyExpiredAuthorizationsInSeveralBatches() {
+        // Rama 1: manda el vencimiento del refresh token, aunque el access token ya haya vencido
+        insert("refresh-expired-1", PAST, PAST, null);
+        insert("refresh-expired-2", PAST, FUTURE, null);
+        insert("refresh-expired-3", PAST, null, null);
+        insert("refresh-live", FUTURE, PAST, null);
+        // Rama 2: sin refresh token
+        insert("access-expired-1", null, PAST, null);
+        insert("access-expired-2", null, PAST, FUTURE);
+        insert("access-live", null, FUTURE, PAST);
+        // Rama 3: solo authorization code
+        insert("code-expired", null, null, PAST);
+        insert("code-live", null, null, FUTURE);
+        // Sin ningun vencimiento: no se toca
+        insert("no-expiry", null, null, null);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // 6 vencidas en lotes de 2: tres DELETE completos y uno vacio que corta el ciclo
+        new OAuth2AuthorizationSweeper(jdbcTemplate, registry, 2).sweep();
+
+        assertThat(jdbcTemplate.queryForList("select id from oauth2_authorization where id like ? order by id",
+                String.class, prefix + "%"))
+                .containsExactly(prefix + "access-live", prefix + "code-live", prefix + "no-expiry", prefix + "refresh-live");
+        assertThat(registry.get("auth.oauth2.authorizations.swept").counter().count()).isEqualTo(6);
+    }
+
+    private void insert(String id, OffsetDateTime refreshExpiresAt, OffsetDateTime accessExpiresAt, OffsetDateTime codeExpiresAt) {
+        jdbcTemplate.update("insert into oauth2_authorization (id, registered_client_id, principal_name, "
+                        + "authorization_grant_type, refresh_token_expires_at, access_token_expires_at, "
+                        + "authorization_code_expires_at) values (?, 'client', 'user', 'authorization_code', ?, ?, ?)",
+                prefix + id, refreshExpiresAt, accessExpiresAt, codeExpiresAt);
+    }
+}
@@ -0,0 +1,76 @@
+package com.gianniniseba.authservice.security;
+
+import com.gianniniseba.authservice.config.OAuth2AuthorizationServerConfig;
+import com.gianniniseba.authservice.entity.Role;
+import com.gianniniseba.authservice.entity.RoleName;
+import com.gianniniseba.authservice.entity.User;
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import com.gianniniseba.authservice.repository.RevokedTokenRepository;
+import com.gianniniseba.authservice.repository.UserRevocationRepository;
+import com.gianniniseba.authservice.service.OAuth2TokenService;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class SigningAlgorithmTest {
+
+    private static final AuthMetrics AUTH_METRICS = new AuthMetrics(new SimpleMeterRegistry());
+    private static final TokenRevocationList REVOCATIONS = new TokenRevocationList(mock(RevokedTokenRepository.class),
+            mock(UserRevocationRepository.class), new SimpleMeterRegistry(), 1000, 0.01);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"RS256", "ES256", "Ed25519"})
+    void issuedTokenVerifiesWithConfiguredAlgorithm(String algorithm) throws Exception {
+        OAuth2AuthorizationServerConfig config = new OAuth2AuthorizationServerConfig(algorithm);
+        SigningKeyManager jwkSource = SigningKeyManager.inMemory(config.signingAlgorithm());
+        OAuth2TokenService tokenService = new OAuth2TokenService(config.jwtEncoder(jwkSource),
+                config.signingAlgorithm(), AUTH_METRICS);
+        JwtDecoder decoder = config.jwtDecoder(jwkSource, false, 0, new SimpleMeterRegistry(), AUTH_METRICS, REVOCATIONS);
+
+        String token = tokenService.generateAccessToken(user());
+        Jwt jwt = decoder.decode(token);
+
+        assertThat(jwt.getSubject()).isEqualTo("alice");
+        assertThat(jwt.getHeaders()).containsEntry("alg", config.signingAlgorithm().getName());
+        assertThat(jwt.getClaimAsString("authorities")).isEqualTo("ROLE_USER");
+
+        List<JWK> jwks = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+        assertThat(jwks).singleElement()
+                .satisfies(jwk -> assertThat(jwk.toPublicJWK().isPrivate()).isFalse());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"RS256", "ES256", "Ed25519"})
+    void rejectsTokenSignedWithAnotherKey(String algorithm) {
+        OAuth2AuthorizationServerConfig issuer = new OAuth2AuthorizationServerConfig(algorithm);
+        OAuth2AuthorizationServerConfig verifier = new OAuth2AuthorizationServerConfig(algorithm);
+        String token = new OAuth2TokenService(issuer.jwtEncoder(SigningKeyManager.inMemory(issuer.signingAlgorithm())),
+                issuer.signingAlgorithm(), AUTH_METRICS)
+                .generateAccessToken(user());
+
+        JwtDecoder decoder = verifier.jwtDecoder(SigningKeyManager.inMemory(verifier.signingAlgorithm()),
+                false, 0, new SimpleMeterRegistry(), AUTH_METRICS, REVOCATIONS);
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+    }
+
+    private static User user() {
+        return User.builder()
+                .username("alice")
+                .roles(Set.of(Role.builder().id(2L).name(RoleName.ROLE_USER).build()))
+                .build();
+    }
+}
@@ -0,0 +1,243 @@
+package com.gianniniseba.authservice.security;
+
+import com.gianniniseba.authservice.config.OAuth2AuthorizationServerConfig;
+import com.gianniniseba.authservice.entity.Role;
+import com.gianniniseba.authservice.entity.RoleName;
+import com.gianniniseba.authservice.entity.User;
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import com.gianniniseba.authservice.repository.RevokedTokenRepository;
+import com.gianniniseba.authservice.repository.UserRevocationRepository;
+import com.gianniniseba.authservice.service.OAuth2TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class SigningKeyManagerTest {
+
+    private static final AuthMetrics AUTH_METRICS = new AuthMetrics(new SimpleMeterRegistry());
+    private static final TokenRevocationList REVOCATIONS = new TokenRevocationList(mock(RevokedTokenRepository.class),
+            mock(UserRevocationRepository.class), new SimpleMeterRegistry(), 1000, 0.01);
+
+    private static final Duration ROTATION = Duration.ofDays(30);
+    private static final Duration ACTIVATION_DELAY = Duration.ofMinutes(2);
+    private static final Duration GRACE = Duration.ofHours(2);
+
+    @TempDir
+    Path keysDirectory;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final OAuth2AuthorizationServerConfig config = new OAuth2AuthorizationServerConfig("RS256");
+
+    @Test
+    void nodesSharingTheDirectoryVerifyEachOthersTokens() throws Exception {
+        SigningKeyManager nodeA = manager();
+        SigningKeyManager nodeB = manager();
+
+        assertThat(nodeB.getActiveKeyId()).isEqualTo(nodeA.getActiveKeyId());
+        try (Stream<Path> files = Files.list(keysDirectory)) {
+            assertThat(files).singleElement()
+                    .satisfies(file -> assertThat(file.getFileName().toString()).endsWith(nodeA.getActiveKeyId() + ".pem"));
+        }
+
+        String token = issue(nodeA);
+        assertThat(decoder(nodeB).decode(token).getSubject()).isEqualTo("alice");
+    }
+
+    @Test
+    void nodesColdStartingTogetherAdoptASingleBootstrapKey() throws Exception {
+        int nodes = 4;
+        List<Callable<String>> starts = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            starts.add(() -> manager().getActiveKeyId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(nodes);
+        try {
+            Set<String> activeKeyIds = new HashSet<>();
+            for (Future<String> start : executor.invokeAll(starts)) {
+                activeKeyIds.add(start.get());
+            }
+            assertThat(activeKeyIds).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Stream<Path> files = Files.list(keysDirectory)) {
+            assertThat(files).singleElement()
+                    .satisfies(file -> assertThat(file.getFileName().toString()).endsWith(".pem"));
+        }
+    }
+
+    @Test
+    void bootstrapWaitsForTheNodeHoldingTheLock() throws Exception {
+        Path lock = Files.createFile(keysDirectory.resolve(".keys.lock"));
+        SigningKeyManager owner = new SigningKeyManager(SigningAlgorithm.RS256, keysDirectory,
+                ROTATION, ACTIVATION_DELAY, GRACE, clock);
+
+        Thread waiting = Thread.ofPlatform().start(owner::initialize);
+        Thread.sleep(300);
+        assertThat(waiting.isAlive()).isTrue();
+
+        // El nodo que tenia el lock termina de escribir su clave
+        Files.delete(lock);
+        SigningKeyManager other = manager();
+        waiting.join(5000);
+
+        assertThat(waiting.isAlive()).isFalse();
+        assertThat(owner.getActiveKeyId()).isEqualTo(other.getActiveKeyId());
+    }
+
+    @Test
+    void nodesRotatingTogetherCreateASingleNewKey() throws Exception {
+        int nodes = 4;
+        List<SigningKeyManager> managers = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            managers.add(manager());
+        }
+        clock.advance(ROTATION);
+
+        ExecutorService executor = Executors.newFixedThreadPool(nodes);
+        try {
+            List<Callable<Void>> refreshes = new ArrayList<>();
+            for (SigningKeyManager manager : managers) {
+                refreshes.add(() -> {
+                    manager.refresh();
+                    return null;
+                });
+            }
+            for (Future<Void> refresh : executor.invokeAll(refreshes)) {
+                refresh.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Stream<Path> files = Files.list(keysDirectory)) {
+            assertThat(files.filter(file -> file.getFileName().toString().endsWith(".pem"))).hasSize(2);
+        }
+        // Quien no tomo el lock carga la clave nueva en el siguiente refresh y todos firman con la misma
+        clock.advance(ACTIVATION_DELAY);
+        managers.forEach(SigningKeyManager::refresh);
+        assertThat(managers).extracting(SigningKeyManager::getActiveKeyId).containsOnly(managers.get(0).getActiveKeyId());
+    }
+
+    @Test
+    void rotationIsSkippedWhileAnotherNodeHoldsTheLock() throws Exception {
+        SigningKeyManager manager = manager();
+        Path lock = Files.createFile(keysDirectory.resolve(".keys.lock"));
+        clock.advance(ROTATION);
+
+        manager.refresh();
+        assertThat(manager.getJwkSet().getKeys()).hasSize(1);
+
+        Files.delete(lock);
+        manager.refresh();
+        assertThat(manager.getJwkSet().getKeys()).hasSize(2);
+    }
+
+    @Test
+    void rotationPrePublishesNewKeyAndRetiresOldOneAfterGrace() {
+        SigningKeyManager manager = manager();
+        String firstKeyId = manager.getActiveKeyId();
+        String oldToken = issue(manager);
+
+        clock.advance(ROTATION);
+        manager.refresh();
+
+        // La nueva clave ya se publica pero todavia no firma
+        assertThat(manager.getJwkSet().getKeys()).hasSize(2);
+        assertThat(manager.getActiveKeyId()).isEqualTo(firstKeyId);
+
+        clock.advance(ACTIVATION_DELAY);
+        manager.refresh();
+        assertThat(manager.getActiveKeyId()).isNotEqualTo(firstKeyId);
+        assertThat(decoder(manager).decode(oldToken).getSubject()).isEqualTo("alice");
+
+        clock.advance(GRACE.plusSeconds(1));
+        manager.refresh();
+        assertThat(manager.getJwkSet().getKeys()).hasSize(1);
+        assertThat(manager.getJwkSet().getKeyByKeyId(firstKeyId)).isNull();
+        assertThatThrownBy(() -> decoder(manager).decode(oldToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void keysSurviveRestart() {
+        SigningKeyManager beforeRestart = manager();
+        String token = issue(beforeRestart);
+
+        SigningKeyManager afterRestart = manager();
+
+        assertThat(afterRestart.getActiveKeyId()).isEqualTo(beforeRestart.getActiveKeyId());
+        assertThat(decoder(afterRestart).decode(token).getSubject()).isEqualTo("alice");
+    }
+
+    private SigningKeyManager manager() {
+        SigningKeyManager manager = new SigningKeyManager(SigningAlgorithm.RS256, keysDirectory,
+                ROTATION, ACTIVATION_DELAY, GRACE, clock);
+        manager.initialize();
+        return manager;
+    }
+
+    private String issue(SigningKeyManager manager) {
+        return new OAuth2TokenService(config.jwtEncoder(manager), config.signingAlgorithm(), AUTH_METRICS)
+                .generateAccessToken(User.builder()
+                        .username("alice")
+                        .roles(Set.of(Role.builder().id(2L).name(RoleName.ROLE_USER).build()))
+                        .build());
+    }
+
+    private JwtDecoder decoder(SigningKeyManager manager) {
+        return config.jwtDecoder(manager, false, 0, new SimpleMeterRegistry(), AUTH_METRICS, REVOCATIONS);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
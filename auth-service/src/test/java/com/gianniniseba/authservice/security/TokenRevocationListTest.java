@@ -0,0 +1,101 @@
+package com.gianniniseba.authservice.security;
+
+import com.gianniniseba.authservice.entity.RevokedToken;
+import com.gianniniseba.authservice.entity.UserRevocation;
+import com.gianniniseba.authservice.repository.RevokedTokenRepository;
+import com.gianniniseba.authservice.repository.UserRevocationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00.500Z");
+
+    private final RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+    private final UserRevocationRepository userRevocationRepository = mock(UserRevocationRepository.class);
+    private final TokenRevocationList revocationList = new TokenRevocationList(revokedTokenRepository,
+            userRevocationRepository, 16, 0.01, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void revokedJtiIsRejectedAndOthersAreNot() {
+        revocationList.load();
+        String jti = UUID.randomUUID().toString();
+
+        revocationList.revoke(jti, NOW.plusSeconds(3600));
+
+        assertThat(revocationList.isRevoked(jwt("bob", jti, NOW.minusSeconds(10)))).isTrue();
+        assertThat(revocationList.isRevoked(jwt("bob", UUID.randomUUID().toString(), NOW.minusSeconds(10)))).isFalse();
+        assertThat(revocationList.isRevoked(jwt("bob", null, NOW.minusSeconds(10)))).isFalse();
+    }
+
+    @Test
+    void revokeAllRejectsTokensIssuedBeforeIt() {
+        revocationList.load();
+
+        revocationList.revokeAllForUser("bob");
+
+        assertThat(revocationList.isRevoked(jwt("bob", UUID.randomUUID().toString(), NOW.minusSeconds(60)))).isTrue();
+        assertThat(revocationList.isRevoked(jwt("bob", UUID.randomUUID().toString(), NOW.plusSeconds(2)))).isFalse();
+        assertThat(revocationList.isRevoked(jwt("alice", UUID.randomUUID().toString(), NOW.minusSeconds(60)))).isFalse();
+    }
+
+    @Test
+    void revokeAllIgnoresUsernameCase() {
+        revocationList.load();
+
+        revocationList.revokeAllForUser("BOB");
+
+        assertThat(revocationList.isRevoked(jwt("bob", UUID.randomUUID().toString(), NOW.minusSeconds(60)))).isTrue();
+        assertThat(revocationList.isRevoked(jwt("Bob", UUID.randomUUID().toString(), NOW.minusSeconds(60)))).isTrue();
+        verify(userRevocationRepository).save(argThat(revocation -> revocation.getUsername().equals("bob")));
+    }
+
+    @Test
+    void startupAndSyncLoadRevocationsFromTheTables() {
+        String loaded = UUID.randomUUID().toString();
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                RevokedToken.builder().jti(loaded).expiresAt(NOW.plusSeconds(60)).revokedAt(NOW).build()));
+        revocationList.load();
+
+        // Mas entradas que la capacidad inicial del filtro: se reconstruye sin perder ninguna
+        List<RevokedToken> fromOtherNode = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            fromOtherNode.add(RevokedToken.builder().jti(UUID.randomUUID().toString())
+                    .expiresAt(NOW.plusSeconds(60)).revokedAt(NOW).build());
+        }
+        when(revokedTokenRepository.findByRevokedAtGreaterThanEqual(any())).thenReturn(fromOtherNode);
+        when(userRevocationRepository.findByRevokedAtGreaterThanEqual(any())).thenReturn(List.of(
+                UserRevocation.builder().username("Carol").revokedBefore(NOW).revokedAt(NOW).build()));
+        revocationList.sync();
+
+        assertThat(revocationList.isRevoked(jwt("bob", loaded, NOW.minusSeconds(1)))).isTrue();
+        assertThat(fromOtherNode).allMatch(token -> revocationList.isRevoked(jwt("bob", token.getJti(), NOW.minusSeconds(1))));
+        assertThat(revocationList.isRevoked(jwt("carol", null, NOW.minusSeconds(1)))).isTrue();
+    }
+
+    private static Jwt jwt(String subject, String jti, Instant issuedAt) {
+        Jwt.Builder builder = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject(subject)
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plusSeconds(3600));
+        if (jti != null) {
+            builder.jti(jti);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.UserPage;
+import com.gianniniseba.authservice.dto.UserResponse;
+import com.gianniniseba.authservice.entity.RoleName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("embedded")
+class AdminUserServiceTest {
+
+    private static final Instant LAST_LOGIN = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Autowired
+    private AdminUserService adminUserService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // El contexto (y la base H2) se comparte con otros tests: se pagina desde el ultimo id existente
+    private final String prefix = "adm" + UUID.randomUUID().toString().substring(0, 8);
+    private long afterId;
+
+    @BeforeEach
+    void seed() {
+        afterId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from users", Long.class);
+        insert("one", List.of(RoleName.ROLE_USER), LAST_LOGIN, 3);
+        insert("two", List.of(RoleName.ROLE_ADMIN, RoleName.ROLE_USER), null, 0);
+        insert("three", List.of(), null, 0);
+        insert("four", List.of(RoleName.ROLE_USER), null, 0);
+    }
+
+    @Test
+    void keysetPagesContinueFromNextAfterIdWithoutSplittingRoles() {
+        UserPage first = adminUserService.page(afterId, 2);
+        assertThat(first.getUsers()).extracting(UserResponse::getUsername).containsExactly(prefix + "one", prefix + "two");
+        // El limite es de usuarios, no de filas usuario x rol: el ultimo de la pagina trae todos sus roles
+        assertThat(first.getUsers().get(1).getRoles()).containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_USER");
+        assertThat(first.getNextAfterId()).isEqualTo(first.getUsers().get(1).getId());
+
+        UserPage second = adminUserService.page(first.getNextAfterId(), 2);
+        assertThat(second.getUsers()).extracting(UserResponse::getUsername).containsExactly(prefix + "three", prefix + "four");
+        assertThat(second.getUsers().get(0).getRoles()).isEmpty();
+
+        UserPage last = adminUserService.page(second.getNextAfterId(), 2);
+        assertThat(last.getUsers()).isEmpty();
+        assertThat(last.getNextAfterId()).isNull();
+    }
+
+    @Test
+    void exportWritesOneMappedUserPerLine() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        adminUserService.export(out);
+
+        List<UserResponse> exported = out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> objectMapper.readValue(line, UserResponse.class))
+                .filter(user -> user.getUsername().startsWith(prefix))
+                .toList();
+
+        assertThat(exported).extracting(UserResponse::getUsername)
+                .containsExactly(prefix + "one", prefix + "two", prefix + "three", prefix + "four");
+
+        UserResponse one = exported.get(0);
+        assertThat(one.getId()).isGreaterThan(afterId);
+        assertThat(one.getEmail()).isEqualTo(prefix + "one@x.com");
+        assertThat(one.getRoles()).containsExactly("ROLE_USER");
+        assertThat(one.getLastLoginAt()).isEqualTo(LAST_LOGIN);
+        assertThat(one.getLoginCount()).isEqualTo(3);
+
+        assertThat(exported.get(1).getRoles()).containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_USER");
+        assertThat(exported.get(2).getRoles()).isEmpty();
+        assertThat(exported.get(2).getLastLoginAt()).isNull();
+        assertThat(exported.get(2).getLoginCount()).isZero();
+    }
+
+    private void insert(String name, List<RoleName> roles, Instant lastLoginAt, long loginCount) {
+        Timestamp now = Timestamp.from(Instant.now());
+        OffsetDateTime lastLogin = lastLoginAt != null ? lastLoginAt.atOffset(ZoneOffset.UTC) : null;
+        jdbcTemplate.update("insert into users (username, email, password, enabled, created_at, updated_at, last_login_at, login_count) "
+                + "values (?, ?, 'hash', true, ?, ?, ?, ?)", prefix + name, prefix + name + "@x.com", now, now, lastLogin, loginCount);
+        Long id = jdbcTemplate.queryForObject("select id from users where username = ?", Long.class, prefix + name);
+        for (RoleName role : roles) {
+            jdbcTemplate.update("insert into user_roles (user_id, role_id) values (?, ?)", id, roleRegistry.idOf(role));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.AuditEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditRingBufferTest {
+
+    @Test
+    void rejectsWhenFullAndKeepsOrderAcrossWraparound() {
+        AuditRingBuffer buffer = new AuditRingBuffer(3);
+        assertThat(buffer.capacity()).isEqualTo(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(event("u" + i))).isTrue();
+        }
+        assertThat(buffer.offer(event("u4"))).isFalse();
+
+        List<AuditEvent> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(buffer.offer(event("u5"))).isTrue();
+        assertThat(buffer.drainTo(drained, 10)).isEqualTo(2);
+
+        assertThat(drained).extracting(AuditEvent::username).containsExactly("u0", "u1", "u2", "u3", "u5");
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void concurrentProducersLoseNothingThatWasAccepted() throws Exception {
+        AuditRingBuffer buffer = new AuditRingBuffer(1024);
+        AtomicInteger accepted = new AtomicInteger();
+        Set<String> received = new HashSet<>();
+        List<AuditEvent> batch = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                int producer = p;
+                producers.add(executor.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        if (buffer.offer(event(producer + "-" + i))) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            while (!producers.stream().allMatch(Future::isDone) || buffer.size() > 0) {
+                buffer.drainTo(batch, 256);
+                batch.forEach(event -> received.add(event.username()));
+                batch.clear();
+            }
+        }
+
+        assertThat(received).hasSize(accepted.get());
+    }
+
+    private static AuditEvent event(String username) {
+        return new AuditEvent(AuditEvent.Type.LOGIN_SUCCESS, username, null, null, Instant.EPOCH);
+    }
+}
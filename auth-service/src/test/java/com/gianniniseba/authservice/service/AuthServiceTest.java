@@ -0,0 +1,177 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.AuthResponse;
+import com.gianniniseba.authservice.dto.LoginRequest;
+import com.gianniniseba.authservice.dto.RefreshRequest;
+import com.gianniniseba.authservice.dto.RegisterRequest;
+import com.gianniniseba.authservice.dto.UserCredentials;
+import com.gianniniseba.authservice.entity.Role;
+import com.gianniniseba.authservice.entity.RoleName;
+import com.gianniniseba.authservice.exception.UserAlreadyExistsException;
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import com.gianniniseba.authservice.repository.RoleRepository;
+import com.gianniniseba.authservice.repository.UserRepository;
+import com.gianniniseba.authservice.security.TokenRevocationList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+    private final OAuth2TokenService oAuth2TokenService = mock(OAuth2TokenService.class);
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        RoleRegistry roleRegistry = new RoleRegistry();
+        roleRegistry.reload(List.of(Role.builder().id(2L).name(RoleName.ROLE_USER).build()));
+        authService = new AuthService(userRepository, roleRepository, passwordHashingService, oAuth2TokenService, roleRegistry,
+                refreshTokenService, mock(TokenRevocationList.class), mock(LoginActivityTracker.class), mock(AuditLog.class), new AuthMetrics(registry));
+        when(passwordHashingService.encode(any())).thenReturn("hash");
+        when(roleRepository.getReferenceById(2L)).thenReturn(Role.builder().id(2L).build());
+    }
+
+    @Test
+    void duplicateUsernameFromUniqueIndexKeepsExistingMessage() {
+        when(userRepository.saveAndFlush(any())).thenThrow(postgresDuplicate("uk_users_username_lower", "lower(username::text)"));
+
+        assertThatThrownBy(() -> authService.register(request()))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessage("El nombre de usuario ingresado ya se encuentra en uso.");
+        verify(userRepository, never()).existsByUsername(any());
+        assertThat(registry.get("auth.register").tag("outcome", "duplicate_user").timer().count()).isEqualTo(1);
+        assertThat(registry.get("auth.register.insert").tag("outcome", "duplicate_user").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void duplicateEmailFromUniqueIndexKeepsExistingMessage() {
+        when(userRepository.saveAndFlush(any())).thenThrow(postgresDuplicate("uk_users_email_lower", "lower(email::text)"));
+
+        assertThatThrownBy(() -> authService.register(request()))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessage("El email ingresado ya se encuentra en uso.");
+    }
+
+    @Test
+    void duplicatesReportedByH2AreTranslatedByConstraintName() {
+        when(userRepository.saveAndFlush(any()))
+                .thenThrow(h2Duplicate("UK_USERS_USERNAME_LOWER", "USERNAME_LOWER"))
+                .thenThrow(h2Duplicate("UK_USERS_EMAIL_LOWER", "EMAIL_LOWER"));
+
+        assertThatThrownBy(() -> authService.register(request()))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessage("El nombre de usuario ingresado ya se encuentra en uso.");
+        assertThatThrownBy(() -> authService.register(request()))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessage("El email ingresado ya se encuentra en uso.");
+    }
+
+    @Test
+    void uniqueViolationOnAnUnexpectedIndexIsStillADuplicateUser() {
+        // Restriccion que genero Hibernate en una base creada con ddl-auto=update
+        when(userRepository.saveAndFlush(any())).thenThrow(postgresDuplicate("users_username_key", "username"));
+
+        assertThatThrownBy(() -> authService.register(request()))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessage("El nombre de usuario o el email ingresado ya se encuentra en uso.");
+    }
+
+    @Test
+    void otherConstraintViolationsAreNotReportedAsDuplicateUser() {
+        // El texto menciona "username" pero no es un duplicado
+        SQLException notNull = new SQLException("ERROR: null value in column \"username\" of relation \"users\" "
+                + "violates not-null constraint", "23502");
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", notNull, null, ConstraintKind.NOT_NULL, null));
+        when(userRepository.saveAndFlush(any())).thenThrow(violation);
+
+        assertThatThrownBy(() -> authService.register(request())).isSameAs(violation);
+    }
+
+    @Test
+    void roleIsAttachedByReferenceWithoutLookup() {
+        authService.register(request());
+        authService.register(request());
+
+        verify(roleRepository, never()).findByName(any());
+        verify(roleRepository, times(2)).getReferenceById(2L);
+        verify(userRepository, times(2)).saveAndFlush(any());
+    }
+
+    @Test
+    void loginUsesCredentialProjection() {
+        when(userRepository.findCredentialsByUsername("bob")).thenReturn(Optional.of(
+                new UserCredentials(1L, "bob", "hash", true, List.of(RoleName.ROLE_USER))));
+        when(passwordHashingService.matches("secret123", "hash")).thenReturn(true);
+        when(oAuth2TokenService.generateAccessToken("bob", List.of(RoleName.ROLE_USER))).thenReturn("token");
+        when(refreshTokenService.issue(1L)).thenReturn("refresh");
+
+        AuthResponse response = authService.login(LoginRequest.builder().username("bob").password("secret123").build());
+
+        assertThat(response.getToken()).isEqualTo("token");
+        assertThat(response.getRefreshToken()).isEqualTo("refresh");
+        assertThat(registry.get("auth.login").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(registry.get("auth.user.lookup").tag("outcome", "success").timer().count()).isEqualTo(1);
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void refreshRotatesTokenWithoutPasswordHashing() {
+        when(refreshTokenService.rotate("old")).thenReturn(
+                new RefreshTokenService.Rotation("bob", List.of(RoleName.ROLE_USER), "new"));
+        when(oAuth2TokenService.generateAccessToken("bob", List.of(RoleName.ROLE_USER))).thenReturn("token");
+
+        AuthResponse response = authService.refresh(RefreshRequest.builder().refreshToken("old").build());
+
+        assertThat(response.getToken()).isEqualTo("token");
+        assertThat(response.getRefreshToken()).isEqualTo("new");
+        verify(passwordHashingService, never()).matches(any(), any());
+        assertThat(registry.get("auth.token.refresh").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    private static RegisterRequest request() {
+        return RegisterRequest.builder().username("bob").email("bob@x.com").password("secret123").build();
+    }
+
+    // Mensajes reales de cada driver; el nombre del indice lo extrae el dialecto y SQLState 23505 es UNIQUE, como en ejecucion
+    private static DataIntegrityViolationException postgresDuplicate(String constraint, String key) {
+        return duplicate(new PostgreSQLDialect(), new SQLException("ERROR: duplicate key value violates unique constraint \""
+                + constraint + "\"\n  Detail: Key (" + key + ")=(bob) already exists.", "23505"));
+    }
+
+    private static DataIntegrityViolationException h2Duplicate(String constraint, String column) {
+        return duplicate(new H2Dialect(), new SQLException("Unique index or primary key violation: \"PUBLIC." + constraint
+                + " ON PUBLIC.USERS(" + column + " NULLS FIRST) VALUES ( /* 1 */ 'bob' )\"; SQL statement:\n"
+                + "insert into users (email,enabled,password,username) values (?,?,?,?) [23505-240]", "23505", 23505));
+    }
+
+    private static DataIntegrityViolationException duplicate(Dialect dialect, SQLException sqlException) {
+        String constraint = dialect.getViolatedConstraintNameExtractor().extractConstraintName(sqlException);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, null, ConstraintKind.UNIQUE, constraint));
+    }
+}
@@ -0,0 +1,107 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoginActivityTrackerTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final LoginActivityTracker tracker = tracker(500);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loginsAreAccumulatedPerUserAndWrittenInOneBatch() {
+        tracker.recordLogin(1L);
+        tracker.recordLogin(1L);
+        tracker.recordLogin(2L);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(), any());
+
+        tracker.flush();
+
+        ArgumentCaptor<Collection<Map.Entry<Long, LoginActivityTracker.Pending>>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(batch.getValue()).containsExactlyInAnyOrder(
+                Map.entry(1L, new LoginActivityTracker.Pending(2, NOW)),
+                Map.entry(2L, new LoginActivityTracker.Pending(1, NOW)));
+        assertThat(tracker.pendingUsers()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedFlushKeepsThePendingLogins() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+        tracker.recordLogin(1L);
+
+        tracker.flush();
+        tracker.recordLogin(1L);
+
+        assertThat(tracker.pendingUsers()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onlyTheUsersOfAFailedChunkAreRetried() {
+        LoginActivityTracker tracker = tracker(2);
+        List<Map.Entry<Long, LoginActivityTracker.Pending>> written = new ArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    if (calls.incrementAndGet() == 2) {
+                        throw new QueryTimeoutException("timeout");
+                    }
+                    written.addAll(invocation.getArgument(1));
+                    return new int[0][];
+                });
+        for (long userId = 1; userId <= 5; userId++) {
+            tracker.recordLogin(userId);
+        }
+
+        tracker.flush();
+
+        // Tandas de 2, 2 y 1: la segunda se revierte y queda pendiente, las otras dos se confirman
+        assertThat(calls).hasValue(3);
+        assertThat(tracker.pendingUsers()).isEqualTo(2);
+        verify(transactionManager, times(2)).commit(any());
+        verify(transactionManager).rollback(any());
+
+        tracker.flush();
+
+        assertThat(tracker.pendingUsers()).isZero();
+        assertThat(written).extracting(Map.Entry::getKey).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+        assertThat(written).extracting(entry -> entry.getValue().count()).containsOnly(1L);
+    }
+
+    private LoginActivityTracker tracker(int batchSize) {
+        return new LoginActivityTracker(jdbcTemplate, transactionManager,
+                new AuthMetrics(new SimpleMeterRegistry()), batchSize, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,71 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.exception.HashingCapacityExceededException;
+import com.gianniniseba.authservice.metrics.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+    @Test
+    void rejectsWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PasswordHashingService service = new PasswordHashingService(
+                new BlockingEncoder(started, release), registry, new AuthMetrics(registry), 1, 1, 7);
+
+        try {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("a"));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("b"));
+            waitForQueuedTask(registry);
+
+            assertThatThrownBy(() -> service.encode("c"))
+                    .isInstanceOf(HashingCapacityExceededException.class)
+                    .extracting("retryAfterSeconds").isEqualTo(7L);
+            assertThat(registry.get("auth.hashing.rejected").counter().count()).isEqualTo(1.0);
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:a");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:b");
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+
+    private static void waitForQueuedTask(SimpleMeterRegistry registry) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("executor.queued").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.RefreshTokenRow;
+import com.gianniniseba.authservice.entity.RefreshToken;
+import com.gianniniseba.authservice.entity.RoleName;
+import com.gianniniseba.authservice.entity.User;
+import com.gianniniseba.authservice.exception.InvalidCredentialsException;
+import com.gianniniseba.authservice.repository.RefreshTokenRepository;
+import com.gianniniseba.authservice.repository.UserRepository;
+import com.gianniniseba.authservice.security.TokenDigests;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RefreshTokenService service = new RefreshTokenService(refreshTokenRepository, userRepository,
+            Duration.ofDays(30), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void rotationStoresOnlyTheHashOfTheNewToken() {
+        when(refreshTokenRepository.findRowsByTokenHash(TokenDigests.sha256("old"))).thenReturn(List.of(
+                new RefreshTokenRow(10L, NOW.plusSeconds(60), 1L, "bob", true, RoleName.ROLE_USER),
+                new RefreshTokenRow(10L, NOW.plusSeconds(60), 1L, "bob", true, RoleName.ROLE_ADMIN)));
+        when(refreshTokenRepository.deleteByIdReturningCount(10L)).thenReturn(1);
+        when(userRepository.getReferenceById(1L)).thenReturn(User.builder().id(1L).build());
+
+        RefreshTokenService.Rotation rotation = service.rotate("old");
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertThat(rotation.username()).isEqualTo("bob");
+        assertThat(rotation.roles()).containsExactly(RoleName.ROLE_USER, RoleName.ROLE_ADMIN);
+        assertThat(saved.getValue().getTokenHash()).isEqualTo(TokenDigests.sha256(rotation.refreshToken()));
+        assertThat(saved.getValue().getExpiresAt()).isEqualTo(NOW.plus(Duration.ofDays(30)));
+    }
+
+    @Test
+    void tokenAlreadyConsumedByConcurrentRefreshIsRejected() {
+        when(refreshTokenRepository.findRowsByTokenHash(TokenDigests.sha256("old"))).thenReturn(List.of(
+                new RefreshTokenRow(10L, NOW.plusSeconds(60), 1L, "bob", true, RoleName.ROLE_USER)));
+        when(refreshTokenRepository.deleteByIdReturningCount(10L)).thenReturn(0);
+
+        assertThatThrownBy(() -> service.rotate("old")).isInstanceOf(InvalidCredentialsException.class);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void expiredTokenIsDeletedAndRejected() {
+        when(refreshTokenRepository.findRowsByTokenHash(TokenDigests.sha256("old"))).thenReturn(List.of(
+                new RefreshTokenRow(10L, NOW, 1L, "bob", true, RoleName.ROLE_USER)));
+        when(refreshTokenRepository.deleteByIdReturningCount(10L)).thenReturn(1);
+
+        assertThatThrownBy(() -> service.rotate("old")).isInstanceOf(InvalidCredentialsException.class);
+        verify(refreshTokenRepository).deleteByIdReturningCount(10L);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+}
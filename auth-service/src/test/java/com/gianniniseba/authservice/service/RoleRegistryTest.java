@@ -0,0 +1,34 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.entity.Role;
+import com.gianniniseba.authservice.entity.RoleName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoleRegistryTest {
+
+    private final RoleRegistry registry = new RoleRegistry();
+
+    @Test
+    void tracksRoleChanges() {
+        registry.reload(List.of(Role.builder().id(1L).name(RoleName.ROLE_ADMIN).build()));
+        assertThat(registry.idOf(RoleName.ROLE_ADMIN)).isEqualTo(1L);
+
+        registry.register(Role.builder().id(2L).name(RoleName.ROLE_USER).build());
+        assertThat(registry.idOf(RoleName.ROLE_USER)).isEqualTo(2L);
+
+        // Renombrado: el nombre anterior deja de resolver
+        registry.register(Role.builder().id(1L).name(RoleName.ROLE_USER).build());
+        assertThat(registry.idOf(RoleName.ROLE_USER)).isEqualTo(1L);
+        assertThatThrownBy(() -> registry.idOf(RoleName.ROLE_ADMIN)).isInstanceOf(IllegalStateException.class);
+
+        registry.unregister(Role.builder().id(1L).name(RoleName.ROLE_USER).build());
+        assertThatThrownBy(() -> registry.idOf(RoleName.ROLE_USER))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("ROLE_USER no esta configurado en la base.");
+    }
+}
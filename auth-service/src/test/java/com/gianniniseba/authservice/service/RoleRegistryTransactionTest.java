@@ -0,0 +1,49 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.entity.Role;
+import com.gianniniseba.authservice.entity.RoleName;
+import com.gianniniseba.authservice.repository.RoleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("embedded")
+class RoleRegistryTransactionTest {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rolledBackRoleChangeDoesNotReachTheRegistry() {
+        Long adminId = roleRegistry.idOf(RoleName.ROLE_ADMIN);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Role admin = roleRepository.findByName(RoleName.ROLE_ADMIN).orElseThrow();
+            jdbcTemplate.update("delete from user_roles where role_id = ?", admin.getId());
+            roleRepository.delete(admin);
+            roleRepository.flush();
+
+            // @PostRemove ya corrio, pero el registro no cambia hasta el commit
+            assertThat(roleRegistry.idOf(RoleName.ROLE_ADMIN)).isEqualTo(adminId);
+            status.setRollbackOnly();
+        });
+
+        assertThat(roleRegistry.idOf(RoleName.ROLE_ADMIN)).isEqualTo(adminId);
+        assertThat(roleRepository.findByName(RoleName.ROLE_ADMIN)).get().extracting(Role::getId).isEqualTo(adminId);
+    }
+}
@@ -0,0 +1,78 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.IntrospectionResponse;
+import com.gianniniseba.authservice.security.TokenRevocationList;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenIntrospectionServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final JwtDecoder jwtDecoder = mock(JwtDecoder.class);
+    private final TokenRevocationList tokenRevocationList = mock(TokenRevocationList.class);
+    private final TokenIntrospectionService service = new TokenIntrospectionService(jwtDecoder, tokenRevocationList,
+            100, Duration.ofMinutes(1), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void activeTokenIsDecodedOnceAndCached() {
+        when(jwtDecoder.decode("good")).thenReturn(jwt());
+
+        List<IntrospectionResponse> results = service.introspectAll(List.of("good", "good"));
+
+        verify(jwtDecoder, times(1)).decode("good");
+        assertThat(results).allSatisfy(response -> {
+            assertThat(response.isActive()).isTrue();
+            assertThat(response.getSub()).isEqualTo("bob");
+            assertThat(response.getAuthorities()).containsExactly("ROLE_USER");
+            assertThat(response.getExp()).isEqualTo(NOW.plusSeconds(3600).getEpochSecond());
+        });
+    }
+
+    @Test
+    void invalidTokenIsInactiveAndCached() {
+        when(jwtDecoder.decode("bad")).thenThrow(new BadJwtException("firma invalida"));
+
+        assertThat(service.introspect("bad").isActive()).isFalse();
+        assertThat(service.introspect("bad").isActive()).isFalse();
+        assertThat(service.introspect(" ").isActive()).isFalse();
+
+        verify(jwtDecoder, times(1)).decode("bad");
+    }
+
+    @Test
+    void revocationAfterCachingIsHonoured() {
+        when(jwtDecoder.decode("good")).thenReturn(jwt());
+        assertThat(service.introspect("good").isActive()).isTrue();
+
+        when(tokenRevocationList.isRevoked(any())).thenReturn(true);
+
+        assertThat(service.introspect("good")).isSameAs(IntrospectionResponse.INACTIVE);
+    }
+
+    private static Jwt jwt() {
+        return Jwt.withTokenValue("good")
+                .header("alg", "RS256")
+                .subject("bob")
+                .jti("jti-1")
+                .claim("authorities", List.of("ROLE_USER"))
+                .issuedAt(NOW)
+                .expiresAt(NOW.plusSeconds(3600))
+                .build();
+    }
+}
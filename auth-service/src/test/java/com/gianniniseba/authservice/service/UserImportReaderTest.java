@@ -0,0 +1,64 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.entity.RoleName;
+import com.gianniniseba.authservice.exception.InvalidImportException;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserImportReaderTest {
+
+    @Test
+    void readsCsvWithQuotedFieldsAndRoles() throws Exception {
+        UserImportReader reader = reader(UserImportReader.Format.CSV, """
+                username,email,password_hash,roles
+                ana,ana@x.com,"$2a$10$abc,""def",ROLE_ADMIN ROLE_USER
+
+                bea,bea@x.com,,ROLE_NOPE
+                """);
+
+        UserImportReader.Entry first = reader.next();
+        assertThat(first.line()).isEqualTo(2);
+        assertThat(first.row().getPasswordHash()).isEqualTo("$2a$10$abc,\"def");
+        assertThat(first.row().getPassword()).isNull();
+        assertThat(first.row().getRoles()).containsExactly(RoleName.ROLE_ADMIN, RoleName.ROLE_USER);
+
+        UserImportReader.Entry second = reader.next();
+        assertThat(second.line()).isEqualTo(4);
+        assertThat(second.row()).isNull();
+        assertThat(second.error()).startsWith("Rol desconocido: ROLE_NOPE");
+
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void reportsInvalidJsonLineAndContinues() throws Exception {
+        UserImportReader reader = reader(UserImportReader.Format.NDJSON, """
+                {"username":"ana","email":"ana@x.com","password":"secret123","roles":["ROLE_USER"]}
+                {"username":
+                {"username":"bea","email":"bea@x.com","password":"secret123"}
+                """);
+
+        assertThat(reader.next().row().getRoles()).isEqualTo(List.of(RoleName.ROLE_USER));
+        assertThat(reader.next().error()).startsWith("JSON invalido");
+        assertThat(reader.next().row().getUsername()).isEqualTo("bea");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void rejectsCsvWithoutRequiredHeaders() {
+        UserImportReader reader = reader(UserImportReader.Format.CSV, "user,mail\nana,ana@x.com\n");
+
+        assertThatThrownBy(reader::next).isInstanceOf(InvalidImportException.class);
+    }
+
+    private static UserImportReader reader(UserImportReader.Format format, String body) {
+        return new UserImportReader(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, new JsonMapper());
+    }
+}
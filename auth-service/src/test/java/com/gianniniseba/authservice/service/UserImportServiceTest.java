@@ -0,0 +1,158 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.UserImportError;
+import com.gianniniseba.authservice.dto.UserImportResult;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("embedded")
+class UserImportServiceTest {
+
+    private static final String HASH = "$2a$10$" + "a".repeat(53);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Prefijo propio: el contexto (y la base H2) se comparte con otros tests
+    private final String prefix = "imp" + UUID.randomUUID().toString().substring(0, 8);
+    private final List<UserImportService> services = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(UserImportService::shutdown);
+    }
+
+    @Test
+    void duplicatesInsideTheFileAreReportedWithinAndAcrossChunks() throws Exception {
+        UserImportService service = service(jdbcTemplate, 2, 100);
+
+        UserImportResult result = importRows(service,
+                row("a1", "ROLE_ADMIN", "ROLE_USER"),
+                row("A1"),                           // repetido en el mismo bloque
+                row("b1"),                           // cierra el primer bloque
+                row("c1"),
+                rowWithEmail("B1", "otro-b1@x.com"), // repetido contra el bloque anterior: lo rechaza la base
+                row("d1"));                          // ultimo bloque, incompleto
+
+        assertThat(result.getProcessed()).isEqualTo(6);
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(UserImportError::getLine).containsExactly(2L, 5L);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("Username o email repetido en el archivo.");
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("El nombre de usuario o email ya se encuentra en uso.");
+
+        assertThat(roles("a1")).containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_USER");
+        assertThat(roles("b1")).containsExactly("ROLE_USER");
+        assertThat(roles("c1")).containsExactly("ROLE_USER");
+        assertThat(roles("d1")).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void rowReusingAnExistingUsernameDoesNotGrantItsRoles() throws Exception {
+        importRows(service(jdbcTemplate, 10, 100), row("victim"));
+
+        // Como pgjdbc con reWriteBatchedInserts: SUCCESS_NO_INFO aunque ON CONFLICT haya omitido la fila
+        JdbcTemplate noInfo = new JdbcTemplate(dataSource) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                int[] counts = super.batchUpdate(sql, batchArgs);
+                Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+                return counts;
+            }
+        };
+        UserImportResult result = importRows(service(noInfo, 10, 100),
+                rowWithEmail("victim", "attacker@x.com", "ROLE_ADMIN"),
+                row("fresh", "ROLE_ADMIN"));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getUsername()).isEqualTo(prefix + "victim"));
+        assertThat(roles("victim")).containsExactly("ROLE_USER");
+        assertThat(roles("fresh")).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void errorReportIsCappedButEveryFailureIsCounted() throws Exception {
+        UserImportService service = service(jdbcTemplate, 10, 2);
+
+        UserImportResult result = importRows(service,
+                rowWithEmail("bad1", "no-es-email"),
+                rowWithEmail("bad2", "no-es-email"),
+                rowWithEmail("bad3", "no-es-email"),
+                row("ok1"),
+                rowWithEmail("bad4", "no-es-email"));
+
+        assertThat(result.getProcessed()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(UserImportError::getLine).containsExactly(1L, 2L);
+        assertThat(result.isErrorsTruncated()).isTrue();
+    }
+
+    private UserImportService service(JdbcTemplate jdbc, int batchSize, int maxReportedErrors) {
+        UserImportService service = new UserImportService(jdbc, transactionManager, passwordEncoder, roleRegistry,
+                validator, objectMapper, batchSize, 1, maxReportedErrors);
+        services.add(service);
+        return service;
+    }
+
+    private UserImportResult importRows(UserImportService service, String... rows) throws Exception {
+        byte[] body = String.join("\n", rows).getBytes(StandardCharsets.UTF_8);
+        return service.importUsers(new ByteArrayInputStream(body), UserImportReader.Format.NDJSON);
+    }
+
+    private String row(String username, String... roles) {
+        return rowWithEmail(username, prefix + username.toLowerCase(Locale.ROOT) + "@x.com", roles);
+    }
+
+    private String rowWithEmail(String username, String email, String... roles) {
+        String rolesField = roles.length > 0 ? ", \"roles\": [\"" + String.join("\", \"", roles) + "\"]" : "";
+        return "{\"username\": \"" + prefix + username + "\", \"email\": \"" + email
+                + "\", \"passwordHash\": \"" + HASH + "\"" + rolesField + "}";
+    }
+
+    private List<String> roles(String username) {
+        return jdbcTemplate.queryForList("select r.name from user_roles ur join roles r on r.id = ur.role_id "
+                + "join users u on u.id = ur.user_id where lower(u.username) = lower(?)", String.class, prefix + username);
+    }
+}
@@ -0,0 +1,62 @@
+package com.gianniniseba.authservice.service;
+
+import com.gianniniseba.authservice.dto.UserProfile;
+import com.gianniniseba.authservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserProfileCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserProfileCache cache = new UserProfileCache(userRepository, new SimpleMeterRegistry(),
+            100, Duration.ofMinutes(10));
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findProfileByUsername("bob")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(new UserProfile(1L, "bob@x.com"));
+        });
+
+        CompletableFuture<UserProfile> first = CompletableFuture.supplyAsync(() -> cache.get("bob"));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<UserProfile> second = CompletableFuture.supplyAsync(() -> cache.get("bob"));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(new UserProfile(1L, "bob@x.com"));
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(new UserProfile(1L, "bob@x.com"));
+        verify(userRepository, times(1)).findProfileByUsername("bob");
+    }
+
+    @Test
+    void invalidateReloadsAndMissingUserIsNotCached() {
+        when(userRepository.findProfileByUsername("bob"))
+                .thenReturn(Optional.of(new UserProfile(1L, "old@x.com")))
+                .thenReturn(Optional.of(new UserProfile(1L, "new@x.com")));
+        when(userRepository.findProfileByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThat(cache.get("bob").email()).isEqualTo("old@x.com");
+        assertThat(cache.get("bob").email()).isEqualTo("old@x.com");
+        cache.invalidate("bob");
+        assertThat(cache.get("bob").email()).isEqualTo("new@x.com");
+
+        assertThat(cache.get("ghost")).isNull();
+        assertThat(cache.get("ghost")).isNull();
+        verify(userRepository, times(2)).findProfileByUsername("ghost");
+    }
+}
@@ -0,0 +1,34 @@
+-- Version H2 de db/migration/postgresql/V1__users_and_roles.sql para el perfil "embedded" (tests / carga).
+-- H2 no tiene indices sobre expresiones ni INCLUDE: la unicidad sin mayusculas va en columnas generadas.
+
+create table roles (
+    id bigint generated by default as identity,
+    name varchar(50) not null check (name in ('ROLE_ADMIN', 'ROLE_USER')),
+    primary key (id)
+);
+
+create unique index uk_roles_name on roles (name);
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(50) not null,
+    email varchar(100) not null,
+    password varchar(255) not null,
+    enabled boolean not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    username_lower varchar(50) generated always as (lower(username)),
+    email_lower varchar(100) generated always as (lower(email)),
+    primary key (id)
+);
+
+create unique index uk_users_username_lower on users (username_lower);
+create unique index uk_users_email_lower on users (email_lower);
+
+create table user_roles (
+    user_id bigint not null references users (id),
+    role_id bigint not null references roles (id),
+    primary key (user_id, role_id)
+);
+
+create index idx_user_roles_role_id on user_roles (role_id, user_id);
@@ -0,0 +1,33 @@
+-- Version H2 de db/migration/postgresql/V2__refresh_tokens_and_revocations.sql (sin INCLUDE)
+
+create table refresh_tokens (
+    id bigint generated by default as identity,
+    token_hash varchar(43) not null,
+    user_id bigint not null references users (id),
+    expires_at timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create unique index uk_refresh_tokens_token_hash on refresh_tokens (token_hash);
+create index idx_refresh_tokens_expires_at on refresh_tokens (expires_at);
+create index idx_refresh_tokens_user_id on refresh_tokens (user_id);
+
+create table revoked_tokens (
+    jti varchar(36) not null,
+    expires_at timestamp(6) with time zone not null,
+    revoked_at timestamp(6) with time zone not null,
+    primary key (jti)
+);
+
+create index idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
+create index idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
+
+create table user_revocations (
+    username varchar(50) not null,
+    revoked_before timestamp(6) with time zone not null,
+    revoked_at timestamp(6) with time zone not null,
+    primary key (username)
+);
+
+create index idx_user_revocations_revoked_at on user_revocations (revoked_at);
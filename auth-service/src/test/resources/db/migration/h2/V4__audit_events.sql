@@ -0,0 +1,14 @@
+-- Version H2 de db/migration/postgresql/V4__audit_events.sql (btree en lugar de BRIN)
+
+create table audit_events (
+    id bigint generated by default as identity,
+    event_type varchar(20) not null,
+    username varchar(100),
+    client_ip varchar(45),
+    detail varchar(200),
+    occurred_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_audit_events_occurred_at on audit_events (occurred_at);
+create index idx_audit_events_username on audit_events (username);
@@ -0,0 +1,4 @@
+-- Version H2 de db/migration/postgresql/V5__user_login_activity.sql
+
+alter table users add column last_login_at timestamp(6) with time zone;
+alter table users add column login_count bigint not null default 0;
@@ -0,0 +1,73 @@
+package com.gianniniseba.tokenverifier;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Set;
+
+/*
+ * Verificacion EdDSA (Ed25519) con el proveedor del JDK: Nimbus solo la soporta con Google Tink.
+ * Es la misma estrategia que Ed25519Jws en auth-service.
+ */
+final class Ed25519Verifier implements JWSVerifier {
+
+    private static final String JCA_ALGORITHM = "Ed25519";
+    private static final Set<JWSAlgorithm> ALGORITHMS = Set.of(JWSAlgorithm.EdDSA, JWSAlgorithm.Ed25519);
+
+    // Prefijo DER de SubjectPublicKeyInfo para Ed25519 (RFC 8410), seguido de los 32 bytes de x
+    private static final byte[] X509_PREFIX = {0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x03, 0x21, 0x00};
+
+    private final PublicKey publicKey;
+    private final JCAContext jcaContext = new JCAContext();
+
+    Ed25519Verifier(OctetKeyPair jwk) throws GeneralSecurityException {
+        if (!Curve.Ed25519.equals(jwk.getCurve())) {
+            throw new GeneralSecurityException("Curva OKP no soportada: " + jwk.getCurve());
+        }
+        byte[] x = jwk.getX().decode();
+        byte[] encoded = new byte[X509_PREFIX.length + x.length];
+        System.arraycopy(X509_PREFIX, 0, encoded, 0, X509_PREFIX.length);
+        System.arraycopy(x, 0, encoded, X509_PREFIX.length, x.length);
+        this.publicKey = KeyFactory.getInstance(JCA_ALGORITHM).generatePublic(new X509EncodedKeySpec(encoded));
+    }
+
+    static boolean isEdDsa(JWSAlgorithm algorithm) {
+        return ALGORITHMS.contains(algorithm);
+    }
+
+    @Override
+    public boolean verify(JWSHeader header, byte[] signingInput, Base64URL signature) throws JOSEException {
+        if (!ALGORITHMS.contains(header.getAlgorithm())) {
+            throw new JOSEException("Algoritmo no soportado por la clave Ed25519: " + header.getAlgorithm());
+        }
+        try {
+            Signature verifier = Signature.getInstance(JCA_ALGORITHM);
+            verifier.initVerify(publicKey);
+            verifier.update(signingInput);
+            return verifier.verify(signature.decode());
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("No se pudo verificar la firma Ed25519", e);
+        }
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+        return ALGORITHMS;
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+        return jcaContext;
+    }
+}
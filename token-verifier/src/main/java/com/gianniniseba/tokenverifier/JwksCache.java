@@ -0,0 +1,212 @@
+package com.gianniniseba.tokenverifier;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Copia en memoria del JWKS de auth-service, ya convertida a un JWSVerifier por kid.
+ *
+ * El camino caliente es un get sobre un Map inmutable publicado en un campo volatile. Solo un kid
+ * desconocido (o la primera verificacion) dispara una descarga, que corre en el hilo "token-verifier-jwks":
+ * a lo sumo una en vuelo y, salvo la periodica, no mas de una cada minRefreshInterval, de modo que un
+ * token con kid inventado no se traduce en un request al servidor. Si la descarga falla se mantiene
+ * el JWKS anterior.
+ */
+final class JwksCache implements AutoCloseable {
+
+    private static final System.Logger log = System.getLogger(JwksCache.class.getName());
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final URI jwksUri;
+    private final HttpClient httpClient;
+    private final Duration minRefreshInterval;
+    private final Duration refreshTimeout;
+    private final Clock clock;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicReference<CompletableFuture<Map<String, VerificationKey>>> inFlight = new AtomicReference<>();
+    private volatile Map<String, VerificationKey> keys = Map.of();
+    private volatile long lastAttemptAt = NEVER;
+
+    JwksCache(URI jwksUri, HttpClient httpClient, Duration minRefreshInterval, Duration refreshTimeout,
+              Duration refreshInterval, Clock clock) {
+        this.jwksUri = jwksUri;
+        this.httpClient = httpClient;
+        this.minRefreshInterval = minRefreshInterval;
+        this.refreshTimeout = refreshTimeout;
+        this.clock = clock;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-verifier-jwks");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Refresco periodico opcional: sirve para dejar de aceptar claves que auth-service ya retiro
+        if (!refreshInterval.isZero()) {
+            long delay = refreshInterval.toMillis();
+            executor.scheduleWithFixedDelay(() -> refresh(true), delay, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    VerificationKey key(String kid) {
+        VerificationKey key = keys.get(kid);
+        if (key != null) {
+            return key;
+        }
+
+        CompletableFuture<Map<String, VerificationKey>> refresh = refresh(false);
+        if (refresh == null) {
+            throw new TokenVerificationException("Clave de firma desconocida: " + kid);
+        }
+
+        Map<String, VerificationKey> refreshed;
+        try {
+            refreshed = refresh.get(refreshTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // La descarga sigue en segundo plano; el proximo request la reutiliza
+            throw new TokenVerificationException("No se pudo obtener el JWKS a tiempo", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TokenVerificationException("Interrumpido esperando el JWKS", e);
+        } catch (ExecutionException e) {
+            throw new TokenVerificationException("No se pudo obtener el JWKS", e.getCause());
+        }
+
+        key = refreshed.get(kid);
+        if (key == null) {
+            throw new TokenVerificationException("Clave de firma desconocida: " + kid);
+        }
+        return key;
+    }
+
+    /*
+     * Devuelve la descarga en vuelo o inicia una nueva. null si no hay ninguna en vuelo y la ultima
+     * fue hace menos de minRefreshInterval (solo cuando force es false).
+     */
+    CompletableFuture<Map<String, VerificationKey>> refresh(boolean force) {
+        while (true) {
+            CompletableFuture<Map<String, VerificationKey>> current = inFlight.get();
+            if (current != null) {
+                return current;
+            }
+
+            long now = clock.millis();
+            long last = lastAttemptAt;
+            if (!force && last != NEVER && now - last < minRefreshInterval.toMillis()) {
+                return null;
+            }
+
+            CompletableFuture<Map<String, VerificationKey>> next = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, next)) {
+                lastAttemptAt = now;
+                try {
+                    executor.execute(() -> load(next));
+                } catch (RejectedExecutionException e) {
+                    inFlight.set(null);
+                    throw new TokenVerificationException("El verifier esta cerrado", e);
+                }
+                return next;
+            }
+        }
+    }
+
+    private void load(CompletableFuture<Map<String, VerificationKey>> result) {
+        try {
+            keys = fetch();
+        } catch (IOException | ParseException | RuntimeException e) {
+            log.log(System.Logger.Level.WARNING, "No se pudo actualizar el JWKS desde " + jwksUri + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.set(null);
+            result.complete(keys);
+        }
+    }
+
+    private Map<String, VerificationKey> fetch() throws IOException, InterruptedException, ParseException {
+        HttpRequest request = HttpRequest.newBuilder(jwksUri)
+                .timeout(refreshTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+
+        Map<String, VerificationKey> fetched = new HashMap<>();
+        for (JWK jwk : JWKSet.parse(response.body()).getKeys()) {
+            if (jwk.getKeyID() == null || (jwk.getKeyUse() != null && !KeyUse.SIGNATURE.equals(jwk.getKeyUse()))) {
+                continue;
+            }
+            try {
+                fetched.put(jwk.getKeyID(), toVerificationKey(jwk));
+            } catch (JOSEException | GeneralSecurityException e) {
+                log.log(System.Logger.Level.WARNING, "Se ignora la clave " + jwk.getKeyID() + ": " + e.getMessage());
+            }
+        }
+        return Map.copyOf(fetched);
+    }
+
+    private static VerificationKey toVerificationKey(JWK jwk) throws JOSEException, GeneralSecurityException {
+        JWSVerifier verifier = switch (jwk) {
+            case RSAKey rsaKey -> new RSASSAVerifier(rsaKey);
+            case ECKey ecKey -> new ECDSAVerifier(ecKey);
+            case OctetKeyPair okp -> new Ed25519Verifier(okp);
+            default -> throw new JOSEException("Tipo de clave no soportado: " + jwk.getKeyType());
+        };
+        JWSAlgorithm algorithm = jwk.getAlgorithm() != null ? JWSAlgorithm.parse(jwk.getAlgorithm().getName()) : null;
+        return new VerificationKey(verifier, algorithm);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /*
+     * Verifier de la clave y, si el JWK lo declara, el unico "alg" que acepta.
+     */
+    record VerificationKey(JWSVerifier verifier, JWSAlgorithm algorithm) {
+
+        boolean accepts(JWSAlgorithm headerAlgorithm) {
+            if (!verifier.supportedJWSAlgorithms().contains(headerAlgorithm)) {
+                return false;
+            }
+            // EdDSA y Ed25519 son el mismo algoritmo para una clave Ed25519 (RFC 9864)
+            return algorithm == null || algorithm.equals(headerAlgorithm)
+                    || (verifier instanceof Ed25519Verifier && Ed25519Verifier.isEdDsa(algorithm));
+        }
+    }
+}
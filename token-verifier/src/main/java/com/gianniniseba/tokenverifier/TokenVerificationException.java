@@ -0,0 +1,15 @@
+package com.gianniniseba.tokenverifier;
+
+/*
+ * Token rechazado: firma invalida, kid desconocido, vencido, issuer distinto o formato incorrecto.
+ */
+public class TokenVerificationException extends RuntimeException {
+
+    public TokenVerificationException(String message) {
+        super(message);
+    }
+
+    public TokenVerificationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
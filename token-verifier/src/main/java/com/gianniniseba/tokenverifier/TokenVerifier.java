@@ -0,0 +1,309 @@
+package com.gianniniseba.tokenverifier;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Verifica los access tokens de auth-service sin llamarlo por cada request: firma contra el JWKS
+ * cacheado (ver JwksCache), exp/nbf con tolerancia de reloj, issuer opcional y mapeo de
+ * "authorities"/"roles" y "scope" a listas.
+ *
+ * Uso:
+ *   TokenVerifier verifier = TokenVerifier.builder(URI.create("http://localhost:8080/oauth2/jwks"))
+ *           .issuer("http://localhost:8080")
+ *           .build();
+ *   VerifiedToken token = verifier.verify(bearerToken);
+ *
+ * Es thread-safe y pensado para una unica instancia por aplicacion; close() detiene el hilo de refresco.
+ */
+public final class TokenVerifier implements AutoCloseable {
+
+    // Los algoritmos con los que firma auth-service (ver SigningAlgorithm); cualquier otro se rechaza
+    private static final Set<JWSAlgorithm> ALGORITHMS = Set.of(
+            JWSAlgorithm.RS256, JWSAlgorithm.ES256, JWSAlgorithm.EdDSA, JWSAlgorithm.Ed25519);
+
+    private static final String AUTHORITIES_CLAIM = "authorities";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String SCOPE_CLAIM = "scope";
+
+    // Tope de valores distintos de claim cacheados, como JwtAuthoritiesConverter
+    private static final int MAX_CACHED_CLAIM_VALUES = 256;
+
+    private final JwksCache jwks;
+    private final String issuer;
+    private final Duration clockSkew;
+    private final Clock clock;
+    private final Map<Object, List<String>> claimValues = new ConcurrentHashMap<>();
+
+    private TokenVerifier(Builder builder) {
+        this.jwks = new JwksCache(builder.jwksUri, builder.httpClient, builder.minRefreshInterval,
+                builder.refreshTimeout, builder.refreshInterval, builder.clock);
+        this.issuer = builder.issuer;
+        this.clockSkew = builder.clockSkew;
+        this.clock = builder.clock;
+    }
+
+    public static Builder builder(URI jwksUri) {
+        return new Builder(jwksUri);
+    }
+
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) {
+            throw new TokenVerificationException("Token vacio");
+        }
+
+        SignedJWT jwt;
+        JWTClaimsSet claims;
+        try {
+            jwt = SignedJWT.parse(token);
+            claims = jwt.getJWTClaimsSet();
+        } catch (ParseException e) {
+            throw new TokenVerificationException("Token con formato invalido", e);
+        }
+
+        JWSHeader header = jwt.getHeader();
+        if (!ALGORITHMS.contains(header.getAlgorithm())) {
+            throw new TokenVerificationException("Algoritmo no soportado: " + header.getAlgorithm());
+        }
+        if (header.getKeyID() == null) {
+            throw new TokenVerificationException("El token no indica kid");
+        }
+
+        JwksCache.VerificationKey key = jwks.key(header.getKeyID());
+        if (!key.accepts(header.getAlgorithm())) {
+            throw new TokenVerificationException("El algoritmo " + header.getAlgorithm()
+                    + " no corresponde a la clave " + header.getKeyID());
+        }
+        try {
+            if (!jwt.verify(key.verifier())) {
+                throw new TokenVerificationException("Firma invalida");
+            }
+        } catch (JOSEException e) {
+            throw new TokenVerificationException("Firma invalida", e);
+        }
+
+        validateClaims(claims);
+        return toVerifiedToken(claims);
+    }
+
+    private void validateClaims(JWTClaimsSet claims) {
+        Instant now = clock.instant();
+
+        Date expiresAt = claims.getExpirationTime();
+        if (expiresAt == null) {
+            throw new TokenVerificationException("El token no tiene exp");
+        }
+        if (now.minus(clockSkew).isAfter(expiresAt.toInstant())) {
+            throw new TokenVerificationException("Token vencido");
+        }
+
+        Date notBefore = claims.getNotBeforeTime();
+        if (notBefore != null && now.plus(clockSkew).isBefore(notBefore.toInstant())) {
+            throw new TokenVerificationException("Token todavia no valido");
+        }
+
+        if (issuer != null && !issuer.equals(claims.getIssuer())) {
+            throw new TokenVerificationException("Issuer invalido: " + claims.getIssuer());
+        }
+    }
+
+    private VerifiedToken toVerifiedToken(JWTClaimsSet claims) {
+        Object authorities = claims.getClaim(AUTHORITIES_CLAIM);
+        if (!(authorities instanceof String || authorities instanceof List)) {
+            // Si no hay authorities, intentamos con "roles"
+            authorities = claims.getClaim(ROLES_CLAIM);
+        }
+
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.getJWTID(),
+                claims.getIssuer(),
+                values(authorities),
+                values(claims.getClaim(SCOPE_CLAIM)),
+                toInstant(claims.getIssueTime()),
+                claims.getExpirationTime().toInstant(),
+                claims.getClaims()
+        );
+    }
+
+    /*
+     * String separado por espacios o List de String, igual que acepta auth-service. Hay pocos valores
+     * distintos (combinaciones de roles y scopes), asi que se devuelve la misma lista inmutable por valor.
+     */
+    private List<String> values(Object claimValue) {
+        if (!(claimValue instanceof String || claimValue instanceof List)) {
+            return List.of();
+        }
+
+        List<String> cached = claimValues.get(claimValue);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<String> values;
+        Object key;
+        if (claimValue instanceof String value) {
+            values = split(value);
+            key = value;
+        } else {
+            List<String> strings = toStrings((List<?>) claimValue);
+            values = nonBlank(strings);
+            key = strings;
+        }
+
+        if (claimValues.size() < MAX_CACHED_CLAIM_VALUES) {
+            List<String> previous = claimValues.putIfAbsent(key, values);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return values;
+    }
+
+    private static List<String> split(String value) {
+        List<String> values = new ArrayList<>(4);
+        int length = value.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(value.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(value.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                values.add(value.substring(start, i));
+            }
+        }
+        return List.copyOf(values);
+    }
+
+    private static List<String> nonBlank(List<String> strings) {
+        List<String> values = new ArrayList<>(strings.size());
+        for (String value : strings) {
+            if (!value.isBlank()) {
+                values.add(value);
+            }
+        }
+        return List.copyOf(values);
+    }
+
+    // Copia inmutable del claim para usarla como clave (equals/hashCode por valor, igual que la List original)
+    private static List<String> toStrings(List<?> values) {
+        List<String> strings = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value != null) {
+                strings.add(value.toString());
+            }
+        }
+        return Collections.unmodifiableList(strings);
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
+    @Override
+    public void close() {
+        jwks.close();
+    }
+
+    public static final class Builder {
+
+        private final URI jwksUri;
+        private String issuer;
+        private Duration clockSkew = Duration.ofSeconds(60);
+        private Duration minRefreshInterval = Duration.ofSeconds(30);
+        private Duration refreshTimeout = Duration.ofSeconds(2);
+        private Duration refreshInterval = Duration.ZERO;
+        private HttpClient httpClient;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder(URI jwksUri) {
+            this.jwksUri = Objects.requireNonNull(jwksUri, "jwksUri");
+        }
+
+        // Si se indica, el claim "iss" tiene que coincidir exactamente
+        public Builder issuer(String issuer) {
+            this.issuer = issuer;
+            return this;
+        }
+
+        // Tolerancia para exp/nbf por diferencias de reloj con auth-service (60s, como JwtTimestampValidator)
+        public Builder clockSkew(Duration clockSkew) {
+            this.clockSkew = requireNonNegative(clockSkew, "clockSkew");
+            return this;
+        }
+
+        // Minimo entre descargas disparadas por kid desconocido
+        public Builder minRefreshInterval(Duration minRefreshInterval) {
+            this.minRefreshInterval = requireNonNegative(minRefreshInterval, "minRefreshInterval");
+            return this;
+        }
+
+        // Cuanto espera verify() una descarga del JWKS antes de rechazar el token
+        public Builder refreshTimeout(Duration refreshTimeout) {
+            this.refreshTimeout = requirePositive(refreshTimeout, "refreshTimeout");
+            return this;
+        }
+
+        // Refresco periodico en segundo plano; Duration.ZERO (default) lo deshabilita
+        public Builder refreshInterval(Duration refreshInterval) {
+            this.refreshInterval = requireNonNegative(refreshInterval, "refreshInterval");
+            return this;
+        }
+
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "clock");
+            return this;
+        }
+
+        public TokenVerifier build() {
+            if (httpClient == null) {
+                httpClient = HttpClient.newBuilder()
+                        .connectTimeout(refreshTimeout)
+                        .followRedirects(HttpClient.Redirect.NORMAL)
+                        .build();
+            }
+            return new TokenVerifier(this);
+        }
+
+        private static Duration requireNonNegative(Duration duration, String name) {
+            if (duration == null || duration.isNegative()) {
+                throw new IllegalArgumentException(name + " no puede ser negativo");
+            }
+            return duration;
+        }
+
+        private static Duration requirePositive(Duration duration, String name) {
+            if (duration == null || duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " tiene que ser positivo");
+            }
+            return duration;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.gianniniseba.tokenverifier;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Access token ya verificado. authorities sale del claim "authorities" (o "roles"), igual que en auth-service.
+ */
+public record VerifiedToken(
+        String subject,
+        String tokenId,
+        String issuer,
+        List<String> authorities,
+        List<String> scopes,
+        Instant issuedAt,
+        Instant expiresAt,
+        Map<String, Object> claims
+) {
+
+    public boolean hasAuthority(String authority) {
+        return authorities.contains(authority);
+    }
+}
@@ -0,0 +1,211 @@
+package com.gianniniseba.tokenverifier;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Reemplazo de auth-service para tests y benchmarks: publica /oauth2/jwks con las claves publicas
+ * agregadas, cuenta los requests recibidos y firma tokens con las claves privadas (RS256, ES256, Ed25519).
+ */
+public class JwksTestServer implements AutoCloseable {
+
+    public static final String ISSUER = "http://auth-service.test";
+
+    private final HttpServer server;
+    private final List<TestKey> keys = new CopyOnWriteArrayList<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    public JwksTestServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext("/oauth2/jwks", exchange -> {
+            requests.incrementAndGet();
+            List<JWK> publicKeys = new ArrayList<>();
+            for (TestKey key : keys) {
+                publicKeys.add(key.publicJwk);
+            }
+            byte[] body = new JWKSet(publicKeys).toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    public URI jwksUri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + "/oauth2/jwks");
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    // "RS256", "ES256" o "Ed25519"; la clave queda publicada en el JWKS
+    public TestKey addKey(String algorithm) {
+        TestKey key = TestKey.generate(algorithm);
+        keys.add(key);
+        return key;
+    }
+
+    public void removeKey(TestKey key) {
+        keys.remove(key);
+    }
+
+    // Claims como los de OAuth2TokenService, con un ttl relativo a ahora
+    public static JWTClaimsSet.Builder claims(String subject, String authorities, long ttlSeconds) {
+        long now = System.currentTimeMillis();
+        return new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(subject)
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(new Date(now))
+                .expirationTime(new Date(now + ttlSeconds * 1000))
+                .claim("scope", "read write openid profile")
+                .claim("authorities", authorities)
+                .claim("roles", authorities);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    public static final class TestKey {
+
+        private final String kid;
+        private final JWSAlgorithm algorithm;
+        private final JWK publicJwk;
+        private final JWSSigner signer;
+
+        private TestKey(String kid, JWSAlgorithm algorithm, JWK publicJwk, JWSSigner signer) {
+            this.kid = kid;
+            this.algorithm = algorithm;
+            this.publicJwk = publicJwk;
+            this.signer = signer;
+        }
+
+        public String kid() {
+            return kid;
+        }
+
+        public String sign(JWTClaimsSet claims) {
+            return sign(claims, kid);
+        }
+
+        // Permite firmar con esta clave pero anunciando otro kid en el header
+        public String sign(JWTClaimsSet claims, String headerKid) {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(algorithm).keyID(headerKid).build(), claims);
+            try {
+                jwt.sign(signer);
+            } catch (JOSEException e) {
+                throw new IllegalStateException(e);
+            }
+            return jwt.serialize();
+        }
+
+        private static TestKey generate(String algorithm) {
+            String kid = UUID.randomUUID().toString();
+            try {
+                return switch (algorithm) {
+                    case "RS256" -> {
+                        RSAKey rsaKey = new RSAKeyGenerator(2048).keyID(kid).keyUse(KeyUse.SIGNATURE)
+                                .algorithm(JWSAlgorithm.RS256).generate();
+                        yield new TestKey(kid, JWSAlgorithm.RS256, rsaKey.toPublicJWK(), new RSASSASigner(rsaKey));
+                    }
+                    case "ES256" -> {
+                        ECKey ecKey = new ECKeyGenerator(Curve.P_256).keyID(kid).keyUse(KeyUse.SIGNATURE)
+                                .algorithm(JWSAlgorithm.ES256).generate();
+                        yield new TestKey(kid, JWSAlgorithm.ES256, ecKey.toPublicJWK(), new ECDSASigner(ecKey));
+                    }
+                    case "Ed25519" -> {
+                        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+                        byte[] encoded = keyPair.getPublic().getEncoded();
+                        byte[] x = Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length);
+                        OctetKeyPair jwk = new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(x))
+                                .keyID(kid).keyUse(KeyUse.SIGNATURE).algorithm(JWSAlgorithm.EdDSA).build();
+                        yield new TestKey(kid, JWSAlgorithm.EdDSA, jwk, new Ed25519Signer(keyPair.getPrivate()));
+                    }
+                    default -> throw new IllegalArgumentException("Algoritmo no soportado: " + algorithm);
+                };
+            } catch (JOSEException | GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // Nimbus solo firma Ed25519 con Tink; en el test alcanza con el proveedor del JDK
+    private static final class Ed25519Signer implements JWSSigner {
+
+        private final PrivateKey privateKey;
+        private final JCAContext jcaContext = new JCAContext();
+
+        private Ed25519Signer(PrivateKey privateKey) {
+            this.privateKey = privateKey;
+        }
+
+        @Override
+        public Base64URL sign(JWSHeader header, byte[] signingInput) throws JOSEException {
+            try {
+                Signature signature = Signature.getInstance("Ed25519");
+                signature.initSign(privateKey);
+                signature.update(signingInput);
+                return Base64URL.encode(signature.sign());
+            } catch (GeneralSecurityException e) {
+                throw new JOSEException("No se pudo firmar con Ed25519", e);
+            }
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return Set.of(JWSAlgorithm.EdDSA);
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+}
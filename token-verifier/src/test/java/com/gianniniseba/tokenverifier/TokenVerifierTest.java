@@ -0,0 +1,124 @@
+package com.gianniniseba.tokenverifier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenVerifierTest {
+
+    private final JwksTestServer server = new JwksTestServer();
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private final TokenVerifier verifier = TokenVerifier.builder(server.jwksUri())
+            .issuer(JwksTestServer.ISSUER)
+            .minRefreshInterval(Duration.ofSeconds(30))
+            .clock(clock)
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        verifier.close();
+        server.close();
+    }
+
+    @Test
+    void verifiesEveryAlgorithmLocallyAfterASingleFetch() {
+        List<JwksTestServer.TestKey> keys = List.of(server.addKey("RS256"), server.addKey("ES256"), server.addKey("Ed25519"));
+
+        for (JwksTestServer.TestKey key : keys) {
+            VerifiedToken token = verifier.verify(key.sign(JwksTestServer.claims("bob", "ROLE_USER ROLE_ADMIN", 300).build()));
+
+            assertThat(token.subject()).isEqualTo("bob");
+            assertThat(token.issuer()).isEqualTo(JwksTestServer.ISSUER);
+            assertThat(token.authorities()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+            assertThat(token.scopes()).containsExactly("read", "write", "openid", "profile");
+            assertThat(token.hasAuthority("ROLE_ADMIN")).isTrue();
+        }
+
+        assertThat(server.requests()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsForgedExpiredAndForeignTokens() {
+        JwksTestServer.TestKey key = server.addKey("RS256");
+        String valid = key.sign(JwksTestServer.claims("bob", "ROLE_USER", 300).build());
+        verifier.verify(valid);
+
+        // Firmado con una clave que no esta en el JWKS pero anunciando el kid publicado
+        String forged;
+        try (JwksTestServer other = new JwksTestServer()) {
+            forged = other.addKey("RS256").sign(JwksTestServer.claims("mallory", "ROLE_ADMIN", 300).build(), key.kid());
+        }
+        String expired = key.sign(JwksTestServer.claims("bob", "ROLE_USER", -120).build());
+        String foreign = key.sign(JwksTestServer.claims("bob", "ROLE_USER", 300).issuer("http://otro.test").build());
+
+        assertThatThrownBy(() -> verifier.verify(forged)).isInstanceOf(TokenVerificationException.class).hasMessage("Firma invalida");
+        assertThatThrownBy(() -> verifier.verify(expired)).isInstanceOf(TokenVerificationException.class).hasMessage("Token vencido");
+        assertThatThrownBy(() -> verifier.verify(foreign)).isInstanceOf(TokenVerificationException.class).hasMessageStartingWith("Issuer invalido");
+        assertThatThrownBy(() -> verifier.verify("no-es-un-jwt")).isInstanceOf(TokenVerificationException.class);
+    }
+
+    @Test
+    void unknownKidRefreshesOnceAndIsRateLimited() {
+        JwksTestServer.TestKey first = server.addKey("ES256");
+        verifier.verify(first.sign(JwksTestServer.claims("bob", "ROLE_USER", 300).build()));
+        assertThat(server.requests()).isEqualTo(1);
+
+        // Rotacion: pasado el intervalo minimo, la clave nueva se descarga con el primer token que la usa
+        clock.advance(Duration.ofSeconds(31));
+        JwksTestServer.TestKey rotated = server.addKey("Ed25519");
+        server.removeKey(first);
+        verifier.verify(rotated.sign(JwksTestServer.claims("bob", "ROLE_USER", 300).build()));
+        assertThat(server.requests()).isEqualTo(2);
+
+        // kids inventados dentro del intervalo minimo no llegan al servidor
+        for (int i = 0; i < 10; i++) {
+            String unknown = rotated.sign(JwksTestServer.claims("bob", "ROLE_USER", 300).build(), "kid-" + i);
+            assertThatThrownBy(() -> verifier.verify(unknown))
+                    .isInstanceOf(TokenVerificationException.class)
+                    .hasMessageStartingWith("Clave de firma desconocida");
+        }
+        assertThat(server.requests()).isEqualTo(2);
+
+        clock.advance(Duration.ofSeconds(31));
+        assertThatThrownBy(() -> verifier.verify(rotated.sign(JwksTestServer.claims("bob", "ROLE_USER", 300).build(), "kid-x")))
+                .isInstanceOf(TokenVerificationException.class);
+        assertThat(server.requests()).isEqualTo(3);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.gianniniseba.tokenverifier.benchmark;
+
+import com.gianniniseba.tokenverifier.JwksTestServer;
+import com.gianniniseba.tokenverifier.TokenVerifier;
+import com.gianniniseba.tokenverifier.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Verificacion local (firma + claims + mapeo de authorities) con el JWKS ya cacheado, para cada
+ * algoritmo que emite auth-service. Es el costo por request que reemplaza a un /auth/introspect remoto;
+ * el servidor de prueba solo se consulta una vez en el setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenVerifierBenchmark {
+
+    @Param({"RS256", "ES256", "Ed25519"})
+    private String algorithm;
+
+    private JwksTestServer server;
+    private TokenVerifier verifier;
+    private String token;
+
+    @Setup
+    public void setup() {
+        server = new JwksTestServer();
+        token = server.addKey(algorithm).sign(JwksTestServer.claims("bench-user", "ROLE_USER", 3600).build());
+        verifier = TokenVerifier.builder(server.jwksUri()).issuer(JwksTestServer.ISSUER).build();
+        verifier.verify(token);
+        if (server.requests() != 1) {
+            throw new IllegalStateException("Se esperaba una sola descarga del JWKS");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        verifier.close();
+        server.close();
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return verifier.verify(token);
+    }
+
+    // Varios hilos verificando contra el mismo JWKS cacheado
+    @Benchmark
+    @Threads(4)
+    public VerifiedToken verifyConcurrent() {
+        return verifier.verify(token);
+    }
+}